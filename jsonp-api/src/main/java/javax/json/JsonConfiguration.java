@@ -19,7 +19,11 @@ public class JsonConfiguration {
     
     
     public Object get(String name) {
-        return properties.getProperty(name);
+        Object value = properties.get(name);
+        if (value == null) {
+            value = properties.getProperty(name);
+        }
+        return value;
     }
     
     public Object put(String name, Object value) {
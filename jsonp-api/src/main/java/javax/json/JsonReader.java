@@ -44,7 +44,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
+import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 
 import javax.json.spi.JsonProvider;
@@ -127,17 +127,42 @@ public class JsonReader implements Closeable {
      * is not known
      */
     public JsonReader(InputStream in, Charset charset, JsonConfiguration config) {
-        this.parser = JsonProvider.provider().createParser(in, config);
+        this.parser = JsonProvider.provider().createParser(in, charset, config);
     }
     
+    /**
+     * Creates a JSON reader from a text. The text is read in place.
+     * 
+     * @param text JSON text that is to be read
+     */
     public JsonReader(String text) {
-        this (new StringReader(text));
+        this.parser = JsonProvider.provider().createParser(text);
+    }
+
+    /**
+     * Creates a JSON reader from a text, with the specified configuration. The text is read in place.
+     * 
+     * @param text JSON text that is to be read
+     * @param config configuration of the reader
+     */
+    public JsonReader(String text, JsonConfiguration config) {
+        this.parser = JsonProvider.provider().createParser(text, config);
     }
 
     public Object read() {
         return parser.parseAny();
     }
 
+    /**
+     * Reads the JSON text as a value of the specified type: a bean, a collection, a map, an array, or a simple value.
+     * 
+     * @param type the type of the value
+     * @return the value read
+     */
+    public <T> T read(Type type) {
+        return parser.parseAny(type);
+    }
+
     public JsonArray readJsonArray() {
         return parser.parseJsonArray();
     }
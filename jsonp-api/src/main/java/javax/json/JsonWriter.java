@@ -172,8 +172,10 @@ public class JsonWriter implements Closeable, Flushable {
 
         if (value instanceof JsonObject) {
             generator.writeJsonObject((JsonObject) value);
-        } else {
+        } else if (value instanceof JsonArray) {
             generator.writeJsonArray((JsonArray) value);
+        } else {
+            generator.writeAny(value);
         }
     }
 
@@ -43,6 +43,7 @@ package javax.json.spi;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.io.StringReader;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Iterator;
@@ -113,6 +114,27 @@ public abstract class JsonProvider {
      */
     public abstract JsonParser createParser(Reader reader, JsonConfiguration config);
 
+    /**
+     * Creates a JSON parser from the specified text. Providers may read the text in place instead of through a
+     * {@link StringReader}.
+     * 
+     * @param text JSON text that is to be read
+     */
+    public JsonParser createParser(String text) {
+        return createParser(new StringReader(text));
+    }
+
+    /**
+     * Creates a JSON parser from the specified text. The created parser is configured with the specified
+     * configuration.
+     * 
+     * @param text JSON text that is to be read
+     * @param config configuration of the parser
+     */
+    public JsonParser createParser(String text, JsonConfiguration config) {
+        return createParser(new StringReader(text), config);
+    }
+
     /**
      * Creates a JSON parser from the specified byte stream. The character encoding of the stream is determined as per
      * the <a href="http://tools.ietf.org/rfc/rfc4627.txt">RFC</a>.
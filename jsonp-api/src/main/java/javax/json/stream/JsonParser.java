@@ -42,11 +42,17 @@ public interface JsonParser extends Closeable {
          */
         VALUE_STRING,
         /**
-         * Event for a number value. This event indicates a number value in
-         * an array or object is parsed. The number value itself can be
-         * accessed using {@link javax.json.JsonNumber} methods
+         * Event for an integer value, a number with no fraction and no
+         * exponent. The number value itself can be accessed using
+         * {@link #getLongValue}, {@link #getIntValue} or
+         * {@link #getBigDecimalValue}
          */
         VALUE_INTEGER,
+        /**
+         * Event for a decimal value, a number with a fraction or an exponent.
+         * The number value itself can be accessed using
+         * {@link #getDoubleValue} or {@link #getBigDecimalValue}
+         */
         VALUE_DECIMAL,
         /**
          * Event for a true value. This event indicates a true value in an
@@ -75,6 +81,19 @@ public interface JsonParser extends Closeable {
     
     Iterator<Event> iterator();
 
+    /**
+     * Returns true if there are more parsing events, the same as
+     * {@code iterator().hasNext()}.
+     */
+    boolean hasNext();
+
+    /**
+     * Returns the next parsing event, the same as {@code iterator().next()}.
+     * The value of a scalar event is read with the getters until the next
+     * call, without being boxed.
+     */
+    Event next();
+
     /**
      * Returns a String for name(key), string value and number value. This
      * method is only called when the parser state is one of
@@ -90,6 +109,30 @@ public interface JsonParser extends Closeable {
      */
     String getString();
 
+    /**
+     * Returns the chars of the name, string value or number value of the
+     * current event, from {@link #getTextOffset()} for
+     * {@link #getTextLength()} chars, without creating a String. The chars
+     * are only valid until the next event and must not be modified.
+     * 
+     * @return the chars, or null when the parser state is not one of
+     *         {@link Event#KEY_NAME}, {@link Event#VALUE_STRING},
+     *         {@link Event#VALUE_INTEGER}
+     */
+    char[] getTextCharacters();
+
+    /**
+     * Returns the offset of the text of the current event in
+     * {@link #getTextCharacters()}.
+     */
+    int getTextOffset();
+
+    /**
+     * Returns the length of the text of the current event in
+     * {@link #getTextCharacters()}.
+     */
+    int getTextLength();
+
     /**
      * Returns JSON number as an integer. The returned value is equal to
      * {@code new BigDecimal(getString()).intValue()}. Note that this conversion
@@ -130,4 +173,40 @@ public interface JsonParser extends Closeable {
      *             when the parser state is not VALUE_NUMBER
      */
     BigDecimal getBigDecimalValue();
+
+    /**
+     * Returns JSON number as a double, the closest double to the number
+     * written, without creating a {@code BigDecimal}. This method is only
+     * called when the parser is in {@link Event#VALUE_INTEGER} or
+     * {@link Event#VALUE_DECIMAL} state.
+     * 
+     * @return a double for JSON number
+     */
+    double getDoubleValue();
+
+    /**
+     * Returns true if the JSON number of the current event is an integer,
+     * written with no fraction and no exponent, which is the case in the
+     * {@link Event#VALUE_INTEGER} state.
+     * 
+     * @return whether the number is an integer; false when the current
+     *         event is not a number
+     */
+    boolean isIntegralNumber();
+
+    /**
+     * Skips the next value without creating anything for it: after a
+     * {@link Event#KEY_NAME} event the value of the member, otherwise the next
+     * member of the current object or the next item of the current array.
+     * An object or array is skipped with all its contents.
+     */
+    void skipValue();
+
+    /**
+     * Skips the contents of the object or array just started by a
+     * {@link Event#START_OBJECT} or {@link Event#START_ARRAY} event, so that
+     * the next event is the one after its end. Does nothing after other
+     * events.
+     */
+    void skipChildren();
 }
@@ -0,0 +1,110 @@
+package com.alibaba.json;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the buffers of closed tokenizers and generators for the next ones, so that reading or writing many small
+ * documents doesn't allocate buffers for each. A provider shares one recycler between all the parsers and generators
+ * it creates.
+ * <p>
+ * Buffers are kept in a fixed number of stripes, one buffer of each kind per stripe, and a thread uses the stripe its
+ * id hashes to. Taking and giving back a buffer is a compare-and-set on the slot, so threads never block each other;
+ * two threads sharing a stripe at the same time only means one of them allocates. Unlike thread locals, the memory
+ * kept doesn't grow with the number of threads, however many short-lived threads come and go.
+ */
+public class BufferRecycler {
+
+    /**
+     * The buffer a tokenizer reads a stream into.
+     */
+    public final static int                     READ_BUFFER  = 0;
+
+    /**
+     * The buffer a generator writes into before flushing to its output.
+     */
+    public final static int                     WRITE_BUFFER = 1;
+
+    /**
+     * The buffer a tokenizer accumulates the chars of a string token in, when it has escapes or crosses a refill.
+     */
+    public final static int                     TEXT_BUFFER  = 2;
+
+    private final static int                    KINDS        = 3;
+
+    private final int                           mask;
+    private final AtomicReferenceArray<char[]>  chars;
+    private final AtomicReferenceArray<byte[]>  bytes;
+
+    /**
+     * Creates a recycler with twice as many stripes as processors.
+     */
+    public BufferRecycler(){
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * @param stripes number of buffers of each kind kept, rounded up to a power of two
+     */
+    public BufferRecycler(int stripes){
+        if (stripes < 1) {
+            throw new IllegalArgumentException("illegal stripes : " + stripes);
+        }
+
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.chars = new AtomicReferenceArray<char[]>(size * KINDS);
+        this.bytes = new AtomicReferenceArray<byte[]>(size * KINDS);
+    }
+
+    /**
+     * Returns the char buffer of the kind kept in the stripe of this thread if it is between <code>minSize</code> and
+     * <code>maxSize</code> long, or else a new buffer of <code>minSize</code>.
+     */
+    public char[] allocChars(int kind, int minSize, int maxSize) {
+        int slot = slot(kind);
+        char[] buffer = chars.get(slot);
+        if (buffer != null && buffer.length >= minSize && buffer.length <= maxSize && chars.compareAndSet(slot, buffer, null)) {
+            return buffer;
+        }
+        return new char[minSize];
+    }
+
+    /**
+     * Keeps a char buffer for the next {@link #allocChars(int, int, int)} of its kind, in place of the one kept
+     * before if any. The buffer must not be used by the caller any more.
+     */
+    public void releaseChars(int kind, char[] buffer) {
+        chars.set(slot(kind), buffer);
+    }
+
+    /**
+     * Returns the byte buffer of the kind kept in the stripe of this thread if it is between <code>minSize</code> and
+     * <code>maxSize</code> long, or else a new buffer of <code>minSize</code>.
+     */
+    public byte[] allocBytes(int kind, int minSize, int maxSize) {
+        int slot = slot(kind);
+        byte[] buffer = bytes.get(slot);
+        if (buffer != null && buffer.length >= minSize && buffer.length <= maxSize && bytes.compareAndSet(slot, buffer, null)) {
+            return buffer;
+        }
+        return new byte[minSize];
+    }
+
+    /**
+     * Keeps a byte buffer for the next {@link #allocBytes(int, int, int)} of its kind, in place of the one kept
+     * before if any. The buffer must not be used by the caller any more.
+     */
+    public void releaseBytes(int kind, byte[] buffer) {
+        bytes.set(slot(kind), buffer);
+    }
+
+    private int slot(int kind) {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9; // spread sequential ids over the stripes
+        int stripe = (hash ^ (hash >>> 16)) & mask;
+        return stripe * KINDS + kind;
+    }
+}
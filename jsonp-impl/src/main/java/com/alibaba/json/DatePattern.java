@@ -0,0 +1,788 @@
+package com.alibaba.json;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A date pattern compiled once, which formats epoch millis straight into a char buffer and parses them back from
+ * one. Unlike
+ * {@link java.text.SimpleDateFormat} it is immutable, so one instance can be shared by all the generators of a
+ * configuration, whatever thread they run on.
+ * <p>
+ * Patterns use the letters of {@link java.text.SimpleDateFormat} that have no locale dependent text:
+ * <code>y M d H h m s S a Z X</code>, with text between single quotes, or any other char, copied as it is. Dates are
+ * in the proleptic Gregorian calendar, years before 1 being written as 0, -1 and so on.
+ * <p>
+ * Set as the {@link JsonGeneratorImpl#DATE_FORMAT} of a configuration, either as an instance or as a pattern String,
+ * <code>"iso8601"</code> and <code>"millis"</code> standing for {@link #ISO_8601} and {@link #EPOCH_MILLIS}. The
+ * same key sets the pattern {@link JsonParserImpl#parseAny(java.lang.reflect.Type)} reads dates in.
+ */
+public final class DatePattern {
+
+    public final static String                            ISO_8601_NAME     = "iso8601";
+
+    public final static String                            EPOCH_MILLIS_NAME = "millis";
+
+    private final static TimeZone                         UTC               = TimeZone.getTimeZone("UTC");
+
+    /**
+     * ISO 8601 in UTC, as in <code>2012-12-01T15:22:21.000Z</code>.
+     */
+    public final static DatePattern                       ISO_8601          = new DatePattern("yyyy-MM-dd'T'HH:mm:ss.SSSXXX", UTC);
+
+    /**
+     * Dates written as numbers, their milliseconds since the epoch.
+     */
+    public final static DatePattern                       EPOCH_MILLIS      = new DatePattern();
+
+    private final static ConcurrentMap<String, DatePattern> patterns        = new ConcurrentHashMap<String, DatePattern>();
+
+    private final static int                              LITERAL           = 0;
+    private final static int                              YEAR              = 1;
+    private final static int                              MONTH             = 2;
+    private final static int                              DAY               = 3;
+    private final static int                              HOUR              = 4;
+    private final static int                              HOUR12            = 5;
+    private final static int                              MINUTE            = 6;
+    private final static int                              SECOND            = 7;
+    private final static int                              MILLI             = 8;
+    private final static int                              AM_PM             = 9;
+    private final static int                              ZONE              = 10;
+    private final static int                              ZONE_ISO          = 11;
+
+    private final static long                             MILLIS_PER_DAY    = 24 * 60 * 60 * 1000L;
+
+    private final String                                  pattern;
+    private final TimeZone                                timeZone;
+    private final boolean                                 utc;
+
+    // the compiled pattern: the field of each part, its letter count, and the text of literals
+    private final int[]                                   fields;
+    private final int[]                                   widths;
+    private final String[]                                literals;
+    private final int                                     maxLength;
+
+    private DatePattern(){
+        this.pattern = null;
+        this.timeZone = UTC;
+        this.utc = true;
+        this.fields = new int[0];
+        this.widths = new int[0];
+        this.literals = new String[0];
+        this.maxLength = 20;
+    }
+
+    /**
+     * @param pattern the pattern, see the class comment
+     * @param timeZone the time zone dates are written in
+     * @throws IllegalArgumentException if the pattern has a letter that is not supported, an unclosed quote, or a char
+     * which would need escaping in a JSON string
+     */
+    public DatePattern(String pattern, TimeZone timeZone){
+        this.pattern = pattern;
+        this.timeZone = (TimeZone) timeZone.clone();
+        this.utc = timeZone.getID().equals("UTC") || timeZone.getID().equals("GMT");
+
+        int length = pattern.length();
+        int[] fields = new int[length];
+        int[] widths = new int[length];
+        String[] literals = new String[length];
+        int parts = 0;
+        int maxLength = 0;
+
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < length;) {
+            char c = pattern.charAt(i);
+
+            if (c == '\'') {
+                int end = i + 1;
+                if (end < length && pattern.charAt(end) == '\'') {
+                    literal.append('\'');
+                    i = end + 1;
+                    continue;
+                }
+                for (;; ++end) {
+                    if (end == length) {
+                        throw new IllegalArgumentException("illegal date pattern, unclosed quote : " + pattern);
+                    }
+                    if (pattern.charAt(end) == '\'') {
+                        if (end + 1 < length && pattern.charAt(end + 1) == '\'') {
+                            literal.append('\'');
+                            end++;
+                            continue;
+                        }
+                        break;
+                    }
+                    literal.append(pattern.charAt(end));
+                }
+                i = end + 1;
+                continue;
+            }
+
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+                literal.append(c);
+                i++;
+                continue;
+            }
+
+            int count = 1;
+            while (i + count < length && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            i += count;
+
+            int field;
+            int fieldLength;
+            switch (c) {
+                case 'y':
+                    field = YEAR;
+                    fieldLength = count == 2 ? 2 : Math.max(count, 10);
+                    break;
+                case 'M':
+                    field = MONTH;
+                    fieldLength = Math.max(count, 2);
+                    break;
+                case 'd':
+                    field = DAY;
+                    fieldLength = Math.max(count, 2);
+                    break;
+                case 'H':
+                    field = HOUR;
+                    fieldLength = Math.max(count, 2);
+                    break;
+                case 'h':
+                    field = HOUR12;
+                    fieldLength = Math.max(count, 2);
+                    break;
+                case 'm':
+                    field = MINUTE;
+                    fieldLength = Math.max(count, 2);
+                    break;
+                case 's':
+                    field = SECOND;
+                    fieldLength = Math.max(count, 2);
+                    break;
+                case 'S':
+                    field = MILLI;
+                    fieldLength = Math.max(count, 3);
+                    break;
+                case 'a':
+                    field = AM_PM;
+                    fieldLength = 2;
+                    break;
+                case 'Z':
+                    field = ZONE;
+                    fieldLength = 5;
+                    break;
+                case 'X':
+                    if (count > 3) {
+                        throw new IllegalArgumentException("illegal date pattern : " + pattern);
+                    }
+                    field = ZONE_ISO;
+                    fieldLength = 6;
+                    break;
+                default:
+                    throw new IllegalArgumentException("illegal date pattern letter : " + c + ", pattern : " + pattern);
+            }
+
+            if (literal.length() != 0) {
+                maxLength += addLiteral(literal, pattern, fields, widths, literals, parts++);
+            }
+            fields[parts] = field;
+            widths[parts] = count;
+            parts++;
+            maxLength += fieldLength;
+        }
+        if (literal.length() != 0) {
+            maxLength += addLiteral(literal, pattern, fields, widths, literals, parts++);
+        }
+
+        this.fields = new int[parts];
+        this.widths = new int[parts];
+        this.literals = new String[parts];
+        System.arraycopy(fields, 0, this.fields, 0, parts);
+        System.arraycopy(widths, 0, this.widths, 0, parts);
+        System.arraycopy(literals, 0, this.literals, 0, parts);
+        this.maxLength = maxLength;
+    }
+
+    private static int addLiteral(StringBuilder literal, String pattern, int[] fields, int[] widths, String[] literals,
+                                  int part) {
+        for (int i = 0; i < literal.length(); ++i) {
+            char c = literal.charAt(i);
+            if (c < 128 ? JsonGeneratorImpl.ESCAPES[c] != 0 : c < '\u00a0' || (c >= '\u2000' && c < '\u2100')) {
+                throw new IllegalArgumentException("illegal date pattern, char to escape : " + pattern);
+            }
+        }
+
+        fields[part] = LITERAL;
+        literals[part] = literal.toString();
+        widths[part] = literal.length();
+        literal.setLength(0);
+        return widths[part];
+    }
+
+    /**
+     * Returns the pattern of a configuration value: {@link #ISO_8601} and {@link #EPOCH_MILLIS} by name, or the
+     * pattern in the default time zone, compiled once.
+     */
+    public static DatePattern of(String pattern) {
+        if (ISO_8601_NAME.equals(pattern)) {
+            return ISO_8601;
+        }
+        if (EPOCH_MILLIS_NAME.equals(pattern)) {
+            return EPOCH_MILLIS;
+        }
+
+        TimeZone timeZone = TimeZone.getDefault();
+        String key = timeZone.getID() + ' ' + pattern;
+        DatePattern datePattern = patterns.get(key);
+        if (datePattern == null) {
+            datePattern = new DatePattern(pattern, timeZone);
+            DatePattern old = patterns.putIfAbsent(key, datePattern);
+            if (old != null) {
+                datePattern = old;
+            }
+        }
+        return datePattern;
+    }
+
+    /**
+     * Returns the pattern, or null for {@link #EPOCH_MILLIS}.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    public TimeZone getTimeZone() {
+        return (TimeZone) timeZone.clone();
+    }
+
+    /**
+     * Whether dates are numbers of milliseconds rather than strings, for {@link #EPOCH_MILLIS}.
+     */
+    public boolean isEpochMillis() {
+        return pattern == null;
+    }
+
+    /**
+     * The maximum number of chars {@link #format(long, char[], int)} writes.
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public String format(long millis) {
+        char[] chars = new char[maxLength];
+        return new String(chars, 0, format(millis, chars, 0));
+    }
+
+    /**
+     * Writes a date at <code>pos</code>, which must have {@link #getMaxLength()} chars of room.
+     *
+     * @return the position after the last char written
+     */
+    public int format(long millis, char[] buf, int pos) {
+        if (pattern == null) {
+            if (millis == Long.MIN_VALUE) {
+                "-9223372036854775808".getChars(0, 20, buf, pos);
+                return pos + 20;
+            }
+            int size = (millis < 0) ? JsonGeneratorImpl.stringSize(-millis) + 1 : JsonGeneratorImpl.stringSize(millis);
+            JsonGeneratorImpl.getChars(millis, pos + size, buf);
+            return pos + size;
+        }
+
+        int offset = utc ? 0 : timeZone.getOffset(millis);
+        long local = millis + offset;
+        long days = local / MILLIS_PER_DAY;
+        if (local % MILLIS_PER_DAY < 0) {
+            days--;
+        }
+        int millisOfDay = (int) (local - days * MILLIS_PER_DAY);
+
+        // civil date of a day count, after Howard Hinnant's days_from_civil inverse
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        int doe = (int) (z - era * 146097);
+        int yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        int doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        int mp = (5 * doy + 2) / 153;
+        int day = doy - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+
+        int hour = millisOfDay / 3600000;
+
+        for (int i = 0; i < fields.length; ++i) {
+            int width = widths[i];
+            switch (fields[i]) {
+                case LITERAL:
+                    literals[i].getChars(0, width, buf, pos);
+                    pos += width;
+                    break;
+                case YEAR:
+                    if (width == 2) {
+                        pos = writeNumber((int) (year >= 0 ? year % 100 : -year % 100), 2, buf, pos);
+                    } else {
+                        if (year < 0) {
+                            buf[pos++] = '-';
+                        }
+                        pos = writeNumber((int) Math.abs(year), width, buf, pos);
+                    }
+                    break;
+                case MONTH:
+                    pos = writeNumber(month, width, buf, pos);
+                    break;
+                case DAY:
+                    pos = writeNumber(day, width, buf, pos);
+                    break;
+                case HOUR:
+                    pos = writeNumber(hour, width, buf, pos);
+                    break;
+                case HOUR12:
+                    pos = writeNumber(hour % 12 == 0 ? 12 : hour % 12, width, buf, pos);
+                    break;
+                case MINUTE:
+                    pos = writeNumber(millisOfDay / 60000 % 60, width, buf, pos);
+                    break;
+                case SECOND:
+                    pos = writeNumber(millisOfDay / 1000 % 60, width, buf, pos);
+                    break;
+                case MILLI:
+                    pos = writeNumber(millisOfDay % 1000, width, buf, pos);
+                    break;
+                case AM_PM:
+                    buf[pos++] = hour < 12 ? 'A' : 'P';
+                    buf[pos++] = 'M';
+                    break;
+                case ZONE:
+                    pos = writeOffset(offset, true, false, buf, pos);
+                    break;
+                default:
+                    if (offset == 0) {
+                        buf[pos++] = 'Z';
+                    } else {
+                        pos = writeOffset(offset, width > 1, width == 3, buf, pos);
+                    }
+                    break;
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Parses a date of the pattern from a buffer, with no String in between: the inverse of
+     * {@link #format(long, char[], int)}. A number field takes all the digits there are, or as many as its letters when
+     * another number field follows. {@link #ISO_8601} parses any ISO 8601 date or date time, with or without seconds,
+     * fraction and offset, and {@link #EPOCH_MILLIS} a number of milliseconds.
+     *
+     * @return the milliseconds since the epoch
+     * @throws IllegalArgumentException if the chars are not a date of this pattern
+     */
+    public long parse(char[] buf, int offset, int length) {
+        if (pattern == null) {
+            return parseMillis(buf, offset, length);
+        }
+        if (this == ISO_8601) {
+            return parseIso8601(buf, offset, length);
+        }
+
+        final int end = offset + length;
+        int pos = offset;
+        long year = 1970;
+        int month = 1, day = 1, hour = 0, minute = 0, second = 0, milli = 0;
+        int amPm = -1;
+        int zoneOffset = 0;
+        boolean zoned = false;
+        int twoDigitYear = -1;
+
+        for (int i = 0; i < fields.length; ++i) {
+            int field = fields[i];
+            int width = widths[i];
+
+            if (field == LITERAL) {
+                String literal = literals[i];
+                if (end - pos < width) {
+                    throw illegalDate(buf, offset, length);
+                }
+                for (int j = 0; j < width; ++j) {
+                    if (buf[pos + j] != literal.charAt(j)) {
+                        throw illegalDate(buf, offset, length);
+                    }
+                }
+                pos += width;
+                continue;
+            }
+
+            if (field == AM_PM) {
+                if (end - pos < 2 || (buf[pos + 1] != 'M' && buf[pos + 1] != 'm')) {
+                    throw illegalDate(buf, offset, length);
+                }
+                char c = buf[pos];
+                if (c == 'A' || c == 'a') {
+                    amPm = 0;
+                } else if (c == 'P' || c == 'p') {
+                    amPm = 1;
+                } else {
+                    throw illegalDate(buf, offset, length);
+                }
+                pos += 2;
+                continue;
+            }
+
+            if (field == ZONE || field == ZONE_ISO) {
+                if (field == ZONE_ISO && pos < end && buf[pos] == 'Z') {
+                    zoneOffset = 0;
+                    pos++;
+                } else {
+                    int zoneEnd = parseOffset(buf, pos, end);
+                    if (zoneEnd == -1) {
+                        throw illegalDate(buf, offset, length);
+                    }
+                    zoneOffset = parsedOffset(buf, pos, zoneEnd);
+                    pos = zoneEnd;
+                }
+                zoned = true;
+                continue;
+            }
+
+            boolean negative = false;
+            if (field == YEAR && width != 2 && pos < end && buf[pos] == '-') {
+                negative = true;
+                pos++;
+            }
+
+            // abutting number fields take as many digits as their letters
+            boolean abutting = i + 1 < fields.length && fields[i + 1] >= YEAR && fields[i + 1] <= MILLI;
+            int limit = Math.min(end, pos + (abutting ? width : 9));
+            int start = pos;
+            int value = 0;
+            for (char c; pos < limit && (c = buf[pos]) >= '0' && c <= '9'; ++pos) {
+                value = value * 10 + (c - '0');
+            }
+            if (pos == start) {
+                throw illegalDate(buf, offset, length);
+            }
+
+            switch (field) {
+                case YEAR:
+                    if (width == 2 && pos - start == 2) {
+                        twoDigitYear = value;
+                    } else {
+                        year = negative ? -value : value;
+                    }
+                    break;
+                case MONTH:
+                    month = value;
+                    break;
+                case DAY:
+                    day = value;
+                    break;
+                case HOUR:
+                    hour = value;
+                    break;
+                case HOUR12:
+                    if (value < 1 || value > 12) {
+                        throw illegalDate(buf, offset, length);
+                    }
+                    hour = value % 12;
+                    break;
+                case MINUTE:
+                    minute = value;
+                    break;
+                case SECOND:
+                    second = value;
+                    break;
+                default:
+                    milli = value;
+                    break;
+            }
+        }
+
+        if (pos != end) {
+            throw illegalDate(buf, offset, length);
+        }
+        if (amPm == 1) {
+            hour += 12;
+        }
+
+        if (twoDigitYear == -1) {
+            long millis = toMillis(year, month, day, hour, minute, second, milli, zoned, zoneOffset);
+            if (millis == Long.MIN_VALUE) {
+                throw illegalDate(buf, offset, length);
+            }
+            return millis;
+        }
+
+        // as SimpleDateFormat does, a two digit year is read into the century starting at the instant 80 years before
+        // now: the year of that instant is the first one, and a date of that year before the instant is the last one
+        Calendar centuryStart = Calendar.getInstance(timeZone);
+        centuryStart.add(Calendar.YEAR, -80);
+        int startYear = centuryStart.get(Calendar.YEAR);
+        year = twoDigitYear + startYear / 100 * 100;
+        if (year < startYear) {
+            year += 100;
+        }
+        long millis = toMillis(year, month, day, hour, minute, second, milli, zoned, zoneOffset);
+        if (year == startYear && millis != Long.MIN_VALUE && millis < centuryStart.getTimeInMillis()) {
+            millis = toMillis(year + 100, month, day, hour, minute, second, milli, zoned, zoneOffset);
+        }
+        if (millis == Long.MIN_VALUE) {
+            throw illegalDate(buf, offset, length);
+        }
+        return millis;
+    }
+
+    /**
+     * Returns the instant of the parsed fields, in the parsed offset if <code>zoned</code>, or Long.MIN_VALUE if they
+     * are not a valid date.
+     */
+    private long toMillis(long year, int month, int day, int hour, int minute, int second, int milli, boolean zoned,
+                          int zoneOffset) {
+        long local = toLocalMillis(year, month, day, hour, minute, second, milli);
+        if (local == Long.MIN_VALUE) {
+            return Long.MIN_VALUE;
+        }
+        if (zoned) {
+            return local - zoneOffset;
+        }
+        return toMillis(local);
+    }
+
+    /**
+     * Parses a date from a String, see {@link #parse(char[], int, int)}.
+     */
+    public long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Parses a date in one of the forms written without configuration: ISO 8601 when the date is followed by a
+     * <code>'T'</code>, or else {@link JsonGeneratorImpl#DEFFAULT_DATE_FORMAT} in the default time zone.
+     */
+    public static long parseDefault(char[] buf, int offset, int length) {
+        if (length == 10 || (length > 10 && buf[offset + 10] == 'T')) {
+            return ISO_8601.parse(buf, offset, length);
+        }
+        return of(JsonGeneratorImpl.DEFFAULT_DATE_FORMAT).parse(buf, offset, length);
+    }
+
+    private static long parseMillis(char[] buf, int offset, int length) {
+        int end = offset + length;
+        int pos = offset;
+        boolean negative = pos < end && buf[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        if (pos == end) {
+            throw illegalDate(buf, offset, length);
+        }
+
+        // accumulated negatively, as Long.parseLong does, to reach Long.MIN_VALUE
+        long value = 0;
+        for (; pos < end; ++pos) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                throw illegalDate(buf, offset, length);
+            }
+            value = value * 10 - digit;
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            throw illegalDate(buf, offset, length);
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Parses <code>[-]yyyy-MM-dd['T'HH:mm[:ss[.S...]][Z|+hh[[:]mm]]]</code>, in UTC when there is no offset.
+     */
+    private static long parseIso8601(char[] buf, int offset, int length) {
+        final int end = offset + length;
+        int pos = offset;
+
+        boolean negative = pos < end && buf[pos] == '-';
+        if (negative) {
+            pos++;
+        }
+        int start = pos;
+        int year = 0;
+        for (char c; pos < end && pos - start < 9 && (c = buf[pos]) >= '0' && c <= '9'; ++pos) {
+            year = year * 10 + (c - '0');
+        }
+        if (pos - start < 4 || end - pos < 6 || buf[pos] != '-' || buf[pos + 3] != '-') {
+            throw illegalDate(buf, offset, length);
+        }
+        int month = twoDigits(buf, pos + 1);
+        int day = twoDigits(buf, pos + 4);
+        pos += 6;
+
+        int hour = 0, minute = 0, second = 0, milli = 0;
+        int zoneOffset = 0;
+        if (pos < end) {
+            if (end - pos < 6 || buf[pos] != 'T' || buf[pos + 3] != ':') {
+                throw illegalDate(buf, offset, length);
+            }
+            hour = twoDigits(buf, pos + 1);
+            minute = twoDigits(buf, pos + 4);
+            pos += 6;
+
+            if (pos < end && buf[pos] == ':') {
+                if (end - pos < 3) {
+                    throw illegalDate(buf, offset, length);
+                }
+                second = twoDigits(buf, pos + 1);
+                pos += 3;
+
+                if (pos < end && (buf[pos] == '.' || buf[pos] == ',')) {
+                    start = ++pos;
+                    for (char c; pos < end && (c = buf[pos]) >= '0' && c <= '9'; ++pos) {
+                        if (pos - start < 3) {
+                            milli = milli * 10 + (c - '0');
+                        }
+                    }
+                    int digits = pos - start;
+                    if (digits == 0) {
+                        throw illegalDate(buf, offset, length);
+                    }
+                    for (; digits < 3; ++digits) {
+                        milli *= 10;
+                    }
+                }
+            }
+
+            if (pos < end) {
+                if (buf[pos] == 'Z') {
+                    pos++;
+                } else {
+                    int zoneEnd = parseOffset(buf, pos, end);
+                    if (zoneEnd == -1) {
+                        throw illegalDate(buf, offset, length);
+                    }
+                    zoneOffset = parsedOffset(buf, pos, zoneEnd);
+                    pos = zoneEnd;
+                }
+            }
+        }
+
+        if (pos != end) {
+            throw illegalDate(buf, offset, length);
+        }
+        long local = toLocalMillis(negative ? -year : year, month, day, hour, minute, second, milli);
+        if (local == Long.MIN_VALUE) {
+            throw illegalDate(buf, offset, length);
+        }
+        return local - zoneOffset;
+    }
+
+    /**
+     * Checks an offset <code>+hh</code>, <code>+hhmm</code> or <code>+hh:mm</code>, or with a minus sign.
+     *
+     * @return the position after the offset, or -1
+     */
+    private static int parseOffset(char[] buf, int pos, int end) {
+        if (end - pos < 3 || (buf[pos] != '+' && buf[pos] != '-') || twoDigits(buf, pos + 1) < 0) {
+            return -1;
+        }
+        pos += 3;
+        if (pos < end && buf[pos] == ':') {
+            return end - pos >= 3 && twoDigits(buf, pos + 1) >= 0 ? pos + 3 : -1;
+        }
+        if (end - pos >= 2 && twoDigits(buf, pos) >= 0) {
+            return pos + 2;
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the offset checked by {@link #parseOffset(char[], int, int)}, in milliseconds.
+     */
+    private static int parsedOffset(char[] buf, int pos, int end) {
+        int minutes = twoDigits(buf, pos + 1) * 60;
+        if (end - pos > 3) {
+            minutes += twoDigits(buf, end - 2);
+        }
+        return (buf[pos] == '-' ? -minutes : minutes) * 60000;
+    }
+
+    private static int twoDigits(char[] buf, int pos) {
+        char c0 = buf[pos], c1 = buf[pos + 1];
+        if (c0 < '0' || c0 > '9' || c1 < '0' || c1 > '9') {
+            return -1;
+        }
+        return (c0 - '0') * 10 + (c1 - '0');
+    }
+
+    /**
+     * Returns the milliseconds of a date and time from the epoch, in no time zone, or Long.MIN_VALUE if a field is out
+     * of its range.
+     */
+    private static long toLocalMillis(long year, int month, int day, int hour, int minute, int second, int milli) {
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+            || second < 0 || second > 59 || milli < 0 || milli > 999) {
+            return Long.MIN_VALUE;
+        }
+
+        // days from the civil date, after Howard Hinnant's days_from_civil
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        int yoe = (int) (y - era * 400);
+        int doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        long days = era * 146097 + doe - 719468;
+
+        return days * MILLIS_PER_DAY + hour * 3600000L + minute * 60000L + second * 1000L + milli;
+    }
+
+    /**
+     * Returns the instant of a local time in the time zone. As with {@link java.util.Calendar}, a time repeated when
+     * clocks go back is taken in standard time, and a time skipped when they go forward as if they had not.
+     */
+    private long toMillis(long local) {
+        if (utc) {
+            return local;
+        }
+        int offset = timeZone.getOffset(local - timeZone.getRawOffset());
+        long millis = local - offset;
+        int actual = timeZone.getOffset(millis);
+        return actual == offset ? millis : local - actual;
+    }
+
+    private static IllegalArgumentException illegalDate(char[] buf, int offset, int length) {
+        return new IllegalArgumentException("illegal date : " + new String(buf, offset, length));
+    }
+
+    private static int writeNumber(int value, int width, char[] buf, int pos) {
+        int size = JsonGeneratorImpl.stringSize(value);
+        for (int i = size; i < width; ++i) {
+            buf[pos++] = '0';
+        }
+        JsonGeneratorImpl.getChars(value, pos + size, buf);
+        return pos + size;
+    }
+
+    private static int writeOffset(int offset, boolean minutes, boolean colon, char[] buf, int pos) {
+        int offsetMinutes = offset / 60000;
+        if (offsetMinutes < 0) {
+            buf[pos++] = '-';
+            offsetMinutes = -offsetMinutes;
+        } else {
+            buf[pos++] = '+';
+        }
+        pos = writeNumber(offsetMinutes / 60, 2, buf, pos);
+        if (minutes) {
+            if (colon) {
+                buf[pos++] = ':';
+            }
+            pos = writeNumber(offsetMinutes % 60, 2, buf, pos);
+        }
+        return pos;
+    }
+
+    @Override
+    public String toString() {
+        return pattern == null ? EPOCH_MILLIS_NAME : pattern;
+    }
+}
@@ -0,0 +1,345 @@
+package com.alibaba.json;
+
+import java.math.BigInteger;
+
+/**
+ * Writes doubles and floats as the shortest decimal that reads back as the same value, with the Schubfach algorithm
+ * of Raffaello Giulietti, "The Schubfach way to render doubles" (2020). Digits are written straight into a char
+ * buffer, no String is created.
+ * <p>
+ * The text is laid out as {@link Double#toString(double)} does: plain for magnitudes from 10<sup>-3</sup> up to
+ * 10<sup>7</sup>, such as <code>0.001</code> or <code>1234.5</code>, and as <code>1.0E7</code> otherwise. NaN and
+ * infinities have no JSON representation and are left to the caller.
+ */
+final class DoubleToDecimal {
+
+    /**
+     * The maximum number of chars written for a double, as in <code>-2.2250738585072014E-308</code>.
+     */
+    final static int           MAX_CHARS = 24;
+
+    // double
+    private final static int  P         = 53;
+    private final static int  Q_MIN     = -1074;
+    private final static long C_MIN     = 1L << (P - 1);
+    private final static int  BQ_MASK   = 0x7FF;
+    private final static long T_MASK    = (1L << (P - 1)) - 1;
+    private final static long C_TINY    = 3;
+
+    // float
+    private final static int  FLOAT_P       = 24;
+    private final static int  FLOAT_Q_MIN   = -149;
+    private final static int  FLOAT_C_MIN   = 1 << (FLOAT_P - 1);
+    private final static int  FLOAT_BQ_MASK = 0xFF;
+    private final static int  FLOAT_T_MASK  = (1 << (FLOAT_P - 1)) - 1;
+    private final static int  FLOAT_C_TINY  = 8;
+
+    private final static long MASK_63   = (1L << 63) - 1;
+    private final static long MASK_32   = (1L << 32) - 1;
+
+    private final static int  K_MIN     = -324;
+    private final static int  K_MAX     = 292;
+
+    /**
+     * For each k from {@link #K_MIN} to {@link #K_MAX}, g = floor(10<sup>-k</sup> 2<sup>-r</sup>) + 1 with r such that
+     * 2<sup>125</sup> &lt;= g &lt; 2<sup>126</sup>, split in its 63 high bits and 63 low bits. Computed once rather than
+     * listed.
+     */
+    private final static long[] g      = new long[(K_MAX - K_MIN + 1) << 1];
+
+    static {
+        for (int k = K_MIN; k <= K_MAX; ++k) {
+            BigInteger beta;
+            if (k <= 0) {
+                BigInteger pow = BigInteger.TEN.pow(-k);
+                int shift = pow.bitLength() - 126;
+                beta = shift >= 0 ? pow.shiftRight(shift) : pow.shiftLeft(-shift);
+            } else {
+                BigInteger pow = BigInteger.TEN.pow(k);
+                beta = BigInteger.ONE.shiftLeft(125 + pow.bitLength()).divide(pow);
+            }
+
+            BigInteger gk = beta.add(BigInteger.ONE);
+            g[(k - K_MIN) << 1] = gk.shiftRight(63).longValue();
+            g[(k - K_MIN) << 1 | 1] = gk.longValue() & MASK_63;
+        }
+    }
+
+    private DoubleToDecimal(){
+    }
+
+    /**
+     * Writes a finite double at <code>pos</code>, which must have {@link #MAX_CHARS} chars of room.
+     *
+     * @return the position after the last char written
+     */
+    static int toChars(double v, char[] buf, int pos) {
+        long bits = Double.doubleToRawLongBits(v);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            // normal value: v = c 2^-mq
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            if (0 < mq && mq < P) {
+                // an integer is its own shortest decimal
+                long f = c >> mq;
+                if (f << mq == c) {
+                    return toChars(f, 0, buf, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, buf, pos);
+        }
+
+        if (t != 0) {
+            // subnormal value
+            return t < C_TINY ? toDecimal(Q_MIN, 10 * t, -1, buf, pos) : toDecimal(Q_MIN, t, 0, buf, pos);
+        }
+
+        buf[pos++] = '0';
+        buf[pos++] = '.';
+        buf[pos++] = '0';
+        return pos;
+    }
+
+    /**
+     * Writes a finite float at <code>pos</code>, which must have {@link #MAX_CHARS} chars of room.
+     *
+     * @return the position after the last char written
+     */
+    static int toChars(float v, char[] buf, int pos) {
+        int bits = Float.floatToRawIntBits(v);
+        int t = bits & FLOAT_T_MASK;
+        int bq = (bits >>> (FLOAT_P - 1)) & FLOAT_BQ_MASK;
+
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            int mq = -FLOAT_Q_MIN + 1 - bq;
+            int c = FLOAT_C_MIN | t;
+            if (0 < mq && mq < FLOAT_P) {
+                int f = c >> mq;
+                if (f << mq == c) {
+                    return toChars(f, 0, buf, pos);
+                }
+            }
+            return toDecimal(-mq, c, 0, buf, pos);
+        }
+
+        if (t != 0) {
+            return t < FLOAT_C_TINY ? toDecimal(FLOAT_Q_MIN, 10 * t, -1, buf, pos) : toDecimal(FLOAT_Q_MIN, t, 0, buf, pos);
+        }
+
+        buf[pos++] = '0';
+        buf[pos++] = '.';
+        buf[pos++] = '0';
+        return pos;
+    }
+
+    /**
+     * Finds the shortest decimal in the rounding interval of the double c 2<sup>q</sup> and writes it; dk corrects
+     * the exponent of the tiny values scaled up by ten.
+     */
+    private static int toDecimal(int q, long c, int dk, char[] buf, int pos) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // the interval is asymmetric at a power of two
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        long g1 = g[(k - K_MIN) << 1];
+        long g0 = g[(k - K_MIN) << 1 | 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // try one digit less first: sp10 = floor(s / 10) * 10
+            long sp10 = 10 * multiplyHigh(s, 115292150460684698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(uin ? s : t, k + dk, buf, pos);
+        }
+
+        // both or neither in the interval: the closest one, even on a tie
+        long cmp = vb - ((s + t) << 1);
+        return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    /**
+     * The float counterpart of {@link #toDecimal(int, long, int, char[], int)}, which only needs the high bits of g.
+     */
+    private static int toDecimal(int q, int c, int dk, char[] buf, int pos) {
+        int out = c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != FLOAT_C_MIN || q == FLOAT_Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 33;
+
+        long g1 = g[(k - K_MIN) << 1] + 1;
+
+        int vb = rop(g1, cb << h);
+        int vbl = rop(g1, cbl << h);
+        int vbr = rop(g1, cbr << h);
+
+        int s = vb >> 2;
+        if (s >= 100) {
+            int sp10 = 10 * (int) (s * 1717986919L >>> 34);
+            int tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(upin ? sp10 : tp10, k, buf, pos);
+            }
+        }
+
+        int t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(uin ? s : t, k + dk, buf, pos);
+        }
+
+        int cmp = vb - ((s + t) << 1);
+        return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, pos);
+    }
+
+    /**
+     * Writes f 10<sup>e</sup>, f being positive, laid out as {@link Double#toString(double)} does.
+     */
+    private static int toChars(long f, int e, char[] buf, int pos) {
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+
+        int n = JsonGeneratorImpl.stringSize(f);
+        int exp = e + n; // the value is 0.f 10^exp
+
+        if (0 < exp && exp <= 7) {
+            if (n <= exp) {
+                JsonGeneratorImpl.getChars(f, pos + n, buf);
+                pos += n;
+                for (int i = n; i < exp; ++i) {
+                    buf[pos++] = '0';
+                }
+                buf[pos++] = '.';
+                buf[pos++] = '0';
+            } else {
+                JsonGeneratorImpl.getChars(f, pos + n + 1, buf);
+                System.arraycopy(buf, pos + 1, buf, pos, exp);
+                buf[pos + exp] = '.';
+                pos += n + 1;
+            }
+            return pos;
+        }
+
+        if (-3 < exp && exp <= 0) {
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            for (int i = exp; i < 0; ++i) {
+                buf[pos++] = '0';
+            }
+            JsonGeneratorImpl.getChars(f, pos + n, buf);
+            return pos + n;
+        }
+
+        JsonGeneratorImpl.getChars(f, pos + n + 1, buf);
+        buf[pos] = buf[pos + 1];
+        buf[pos + 1] = '.';
+        pos += n + 1;
+        if (n == 1) {
+            buf[pos++] = '0';
+        }
+        buf[pos++] = 'E';
+
+        int exponent = exp - 1;
+        int size = exponent < 0 ? JsonGeneratorImpl.stringSize(-exponent) + 1 : JsonGeneratorImpl.stringSize(exponent);
+        JsonGeneratorImpl.getChars(exponent, pos + size, buf);
+        return pos + size;
+    }
+
+    /**
+     * The high bits of g cp, g = g1 2<sup>63</sup> + g0, rounded to odd.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & MASK_63) + MASK_63) >>> 63;
+    }
+
+    private static int rop(long g, long cp) {
+        long x1 = multiplyHigh(g, cp);
+        long vbp = x1 >>> 31;
+        return (int) (vbp | ((x1 & MASK_32) + MASK_32) >>> 32);
+    }
+
+    /**
+     * The high 64 bits of the 128 bits product of two longs.
+     */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    // floor(e log10(2)), floor(e log10(3/4 2)) and floor(e log2(10)), exact over the exponents of doubles
+
+    private static int flog10pow2(int e) {
+        return (int) (e * 661971961083L >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661971961083L + -274743187321L >> 41);
+    }
+
+    private static int flog2pow10(int e) {
+        return (int) (e * 913124641741L >> 38);
+    }
+}
@@ -18,6 +18,9 @@ import javax.json.JsonWriter;
 public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     private final List<Object> items;
 
+    // whether some items are objects or arrays not parsed yet, see JsonParserImpl.LAZY
+    private boolean            lazy;
+
     public JsonArrayImpl() {
         items = new ArrayList<Object>();
     }
@@ -31,7 +34,7 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
     
     public String getString(int index) {
-        Object value = items.get(index);
+        Object value = get(index);
         if (value == null) {
             return null;
         }
@@ -48,7 +51,7 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
 
     public boolean getBooleanValue(int index, boolean defaultValue) {
-        Object value = items.get(index);
+        Object value = get(index);
         return toBooleanValue(value, defaultValue);
     }
 
@@ -57,7 +60,7 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
 
     public int getIntValue(int index, int defaultValue) {
-        Object value = items.get(index);
+        Object value = get(index);
         return toIntValue(value, defaultValue);
     }
 
@@ -66,12 +69,12 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
 
     public long getLongValue(int index, long defaultValue) {
-        Object value = items.get(index);
+        Object value = get(index);
         return toLongValue(value, defaultValue);
     }
 
     public BigDecimal getBigDecimal(int index) {
-        Object value = items.get(index);
+        Object value = get(index);
         return toBigDecimal(value);
     }
 
@@ -85,30 +88,39 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
 
     public boolean contains(Object o) {
+        parseLazyValues();
         return items.contains(o);
     }
 
     public Iterator<Object> iterator() {
+        parseLazyValues();
         return items.iterator();
     }
 
     public Object[] toArray() {
+        parseLazyValues();
         return items.toArray();
     }
 
     public <T> T[] toArray(T[] ts) {
+        parseLazyValues();
         return items.toArray(ts);
     }
 
     public boolean add(Object o) {
+        if (o instanceof LazyJsonValue) {
+            lazy = true;
+        }
         return items.add(o);
     }
 
     public boolean remove(Object o) {
+        parseLazyValues();
         return items.remove(o);
     }
 
     public boolean containsAll(Collection<?> objects) {
+        parseLazyValues();
         return items.containsAll(objects);
     }
 
@@ -121,10 +133,12 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
 
     public boolean removeAll(Collection<?> objects) {
+        parseLazyValues();
         return items.removeAll(objects);
     }
 
     public boolean retainAll(Collection<?> objects) {
+        parseLazyValues();
         return items.retainAll(objects);
     }
 
@@ -133,6 +147,7 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
 
     public int hashCode() {
+        parseLazyValues();
         return items.hashCode();
     }
 
@@ -149,16 +164,42 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
             return false;
         }
 
-        return this.items.equals(((JsonArrayImpl) obj).items);
+        JsonArrayImpl other = (JsonArrayImpl) obj;
+        this.parseLazyValues();
+        other.parseLazyValues();
+        return this.items.equals(other.items);
     }
 
     @Override
     public Object get(int index) {
+        Object value = items.get(index);
+        if (value instanceof LazyJsonValue) {
+            value = ((LazyJsonValue) value).parse();
+            items.set(index, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the item, left as it is if it is not parsed yet, so that it can be written back untouched.
+     */
+    Object getRaw(int index) {
         return items.get(index);
     }
 
+    private void parseLazyValues() {
+        if (!lazy) {
+            return;
+        }
+
+        for (int i = 0, size = items.size(); i < size; ++i) {
+            get(i);
+        }
+        lazy = false;
+    }
+
     public Object set(int index, Object o) {
-        return items.set(index, o);
+        return JsonObjectImpl.parse(items.set(index, o));
     }
 
     public void add(int index, Object o) {
@@ -166,26 +207,31 @@ public class JsonArrayImpl extends JsonStructureImpl implements JsonArray {
     }
 
     public Object remove(int index) {
-        return items.remove(index);
+        return JsonObjectImpl.parse(items.remove(index));
     }
 
     public int indexOf(Object o) {
+        parseLazyValues();
         return items.indexOf(o);
     }
 
     public int lastIndexOf(Object o) {
+        parseLazyValues();
         return items.lastIndexOf(o);
     }
 
     public ListIterator<Object> listIterator() {
+        parseLazyValues();
         return items.listIterator();
     }
 
     public ListIterator<Object> listIterator(int index) {
+        parseLazyValues();
         return items.listIterator(index);
     }
 
     public List<Object> subList(int fromIndex, int toIndex) {
+        parseLazyValues();
         return items.subList(fromIndex, toIndex);
     }
 
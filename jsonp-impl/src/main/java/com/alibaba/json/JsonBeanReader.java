@@ -0,0 +1,492 @@
+package com.alibaba.json;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+
+import com.alibaba.json.binding.BeanInfo;
+import com.alibaba.json.binding.BeanReader;
+import com.alibaba.json.binding.PropertyInfo;
+
+/**
+ * Reads values of a Java type straight from the tokens of a parser, for {@link JsonParserImpl#parseAny(Type)}. Beans
+ * are filled property by property as their members are read, with no {@link JsonObject} in between, through the
+ * {@link BeanReader} of their class; the members of a bean written in the order of its properties are read with the
+ * {@link JsonTokenizer} field matchers.
+ * <p>
+ * Dates are read as epoch millis from numbers, and from strings in the {@link JsonParserImpl#DATE_FORMAT} of the
+ * configuration; the strings of date properties matched in place are parsed in the buffer.
+ */
+final class JsonBeanReader {
+
+    private final JsonParserImpl parser;
+    private final JsonTokenizer  tokenizer;
+
+    // a DatePattern, a DateFormat, or null for DatePattern.parseDefault
+    private final Object         dateFormat;
+
+    JsonBeanReader(JsonParserImpl parser, JsonTokenizer tokenizer){
+        this.parser = parser;
+        this.tokenizer = tokenizer;
+
+        Object format = parser.getConfig().get(JsonParserImpl.DATE_FORMAT);
+        if (format instanceof String) {
+            format = DatePattern.of((String) format);
+        } else if (format != null && !(format instanceof DatePattern || format instanceof DateFormat)) {
+            throw new IllegalArgumentException("illegal dateFormat : " + format);
+        }
+        this.dateFormat = format;
+    }
+
+    Object read(Type type) {
+        Class<?> clazz = BeanInfo.getClass(type);
+        JsonToken token = tokenizer.token();
+
+        if (token == JsonToken.NULL) {
+            tokenizer.nextToken();
+            return clazz.isPrimitive() ? defaultValue(clazz) : null;
+        }
+
+        if (clazz == String.class) {
+            if (token == JsonToken.STRING) {
+                String value = tokenizer.stringValue();
+                tokenizer.nextToken();
+                return value;
+            }
+            return parser.parseValue().toString();
+        }
+
+        if (clazz == int.class || clazz == Integer.class) {
+            return (int) readIntegral("int", Integer.MIN_VALUE, Integer.MAX_VALUE);
+        }
+
+        if (clazz == long.class || clazz == Long.class) {
+            return readIntegral("long", Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+
+        if (clazz == double.class || clazz == Double.class || clazz == float.class || clazz == Float.class) {
+            double value;
+            if (token == JsonToken.INT) {
+                value = tokenizer.longValue();
+                tokenizer.nextToken();
+            } else if (token == JsonToken.DOUBLE) {
+                value = tokenizer.doubleValue();
+                tokenizer.nextToken();
+            } else {
+                Object item = parser.parseValue();
+                value = item instanceof String ? Double.parseDouble((String) item) : ((Number) item).doubleValue();
+            }
+            if (clazz == double.class || clazz == Double.class) {
+                return value;
+            }
+            if (Float.isInfinite((float) value) && !Double.isInfinite(value)) {
+                throw new JsonException("can not cast to float : " + value);
+            }
+            return (float) value;
+        }
+
+        if (clazz == boolean.class || clazz == Boolean.class) {
+            return JsonStructureImpl.toBooleanValue(parser.parseValue(), false);
+        }
+
+        if (clazz == short.class || clazz == Short.class) {
+            return (short) readIntegral("short", Short.MIN_VALUE, Short.MAX_VALUE);
+        }
+
+        if (clazz == byte.class || clazz == Byte.class) {
+            return (byte) readIntegral("byte", Byte.MIN_VALUE, Byte.MAX_VALUE);
+        }
+
+        if (clazz == char.class || clazz == Character.class) {
+            String value = parser.parseValue().toString();
+            return value.length() == 0 ? '\0' : value.charAt(0);
+        }
+
+        if (clazz == BigDecimal.class || clazz == BigInteger.class) {
+            BigDecimal value;
+            if (token == JsonToken.INT || token == JsonToken.DOUBLE) {
+                value = tokenizer.decimalValue();
+                tokenizer.nextToken();
+            } else {
+                value = JsonStructureImpl.toBigDecimal(parser.parseValue());
+            }
+            return clazz == BigDecimal.class ? value : value.toBigInteger();
+        }
+
+        if (Date.class.isAssignableFrom(clazz) || Calendar.class.isAssignableFrom(clazz)) {
+            long millis;
+            if (token == JsonToken.INT) {
+                millis = tokenizer.longValue();
+            } else if (token == JsonToken.STRING) {
+                millis = parseDate(tokenizer.stringValue());
+            } else {
+                throw new JsonException("illegal token : " + token + ", expect a date for " + clazz);
+            }
+            tokenizer.nextToken();
+            return toDate(clazz, millis);
+        }
+
+        if (clazz == Object.class || clazz == JsonObject.class || clazz == JsonArray.class
+            || JsonStructureImpl.class.isAssignableFrom(clazz)) {
+            return parser.parseValue();
+        }
+
+        if (clazz.isEnum()) {
+            return readEnum(clazz, parser.parseValue().toString());
+        }
+
+        if (clazz.isArray()) {
+            Type componentType = clazz.getComponentType();
+            if (type instanceof GenericArrayType) {
+                componentType = ((GenericArrayType) type).getGenericComponentType();
+            }
+            List<Object> items = new ArrayList<Object>();
+            readItems(items, componentType);
+
+            Object array = Array.newInstance(clazz.getComponentType(), items.size());
+            for (int i = 0; i < items.size(); ++i) {
+                Array.set(array, i, items.get(i));
+            }
+            return array;
+        }
+
+        if (Collection.class.isAssignableFrom(clazz)) {
+            Collection<Object> collection = createCollection(clazz);
+            readItems(collection, getTypeArgument(type, 0));
+            return collection;
+        }
+
+        if (Map.class.isAssignableFrom(clazz)) {
+            Map<String, Object> map = createMap(clazz);
+            readMap(map, getTypeArgument(type, 1));
+            return map;
+        }
+
+        return readBean(JsonProviderImpl.getBeanReader(clazz), JsonProviderImpl.getBeanInfo(type));
+    }
+
+    /**
+     * Reads an integral number, truncating a fraction like a cast but rejecting a value out of the range of the type
+     * rather than wrapping it.
+     */
+    private long readIntegral(String typeName, long min, long max) {
+        Object item;
+        if (tokenizer.token() == JsonToken.INT) {
+            long value = tokenizer.longValue();
+            tokenizer.nextToken();
+            if (value >= min && value <= max) {
+                return value;
+            }
+            item = value;
+        } else {
+            item = parser.parseValue();
+            if (!(item instanceof Number || item instanceof String)) {
+                return JsonStructureImpl.toLongValue(item, 0L);
+            }
+            BigDecimal value = JsonStructureImpl.toBigDecimal(item);
+            if (value != null && value.compareTo(BigDecimal.valueOf(min)) >= 0
+                && value.compareTo(BigDecimal.valueOf(max)) <= 0) {
+                return value.longValue();
+            }
+        }
+        throw new JsonException("can not cast to " + typeName + " : " + item);
+    }
+
+    /**
+     * @param beanInfo the info of the type the bean is read as, whose property types are resolved for it; the reader is
+     * the one of the class
+     */
+    private Object readBean(BeanReader beanReader, BeanInfo beanInfo) {
+        if (tokenizer.token() != JsonToken.LBRACE) {
+            throw new JsonException("illegal token : " + tokenizer.token() + ", expect " + JsonToken.LBRACE + " for "
+                                    + beanInfo.getClazz());
+        }
+
+        parser.enterStructure();
+        Object bean = beanReader.newInstance();
+
+        // members in the order of the properties, matched in place
+        PropertyInfo[] properties = beanInfo.getProperties();
+        for (int i = 0; i < properties.length; ++i) {
+            if (!matchProperty(beanReader, bean, i, properties[i])) {
+                break;
+            }
+            if (tokenizer.getMatchState() == JsonTokenizer.END) {
+                tokenizer.accept(JsonToken.RBRACE);
+                parser.leaveStructure();
+                return bean;
+            }
+        }
+
+        if (tokenizer.token() == JsonToken.LBRACE) {
+            tokenizer.nextToken();
+        }
+
+        for (;;) {
+            JsonToken token = tokenizer.token();
+
+            if (token == JsonToken.RBRACE) {
+                break;
+            }
+
+            if (token == JsonToken.COMMA) {
+                tokenizer.nextToken();
+                continue;
+            }
+
+            if (token != JsonToken.STRING) {
+                throw new IllegalArgumentException("illegal json token : " + token);
+            }
+            String key = tokenizer.stringValue();
+            tokenizer.nextToken();
+            tokenizer.accept(JsonToken.COLON);
+
+            int index = beanInfo.getPropertyIndex(key);
+            if (index == -1 || !properties[index].isWritable()) {
+                parser.skipToken();
+                continue;
+            }
+            set(beanReader, bean, index, read(properties[index].getType()));
+        }
+
+        tokenizer.accept(JsonToken.RBRACE);
+        parser.leaveStructure();
+        return bean;
+    }
+
+    /**
+     * Reads the next member in one go if it is the property with a value of its type.
+     */
+    private boolean matchProperty(BeanReader beanReader, Object bean, int index, PropertyInfo property) {
+        if (!property.isWritable()) {
+            return false;
+        }
+
+        Class<?> clazz = property.getClazz();
+        Object value;
+        if (clazz == int.class) {
+            value = tokenizer.matchFieldInt(property.getFieldName());
+        } else if (clazz == long.class) {
+            value = tokenizer.matchFieldLong(property.getFieldName());
+        } else if (clazz == double.class) {
+            value = tokenizer.matchFieldDouble(property.getFieldName());
+        } else if (clazz == boolean.class) {
+            value = tokenizer.matchFieldBoolean(property.getFieldName());
+        } else if (clazz == String.class) {
+            value = tokenizer.matchFieldString(property.getFieldName());
+        } else if (clazz == Date.class && !(dateFormat instanceof DateFormat)) {
+            long millis = tokenizer.matchFieldDate(property.getFieldName(), (DatePattern) dateFormat);
+            value = new Date(millis);
+        } else {
+            return false;
+        }
+
+        int state = tokenizer.getMatchState();
+        if (state != JsonTokenizer.VALUE && state != JsonTokenizer.END) {
+            return false;
+        }
+        set(beanReader, bean, index, value);
+        return true;
+    }
+
+    private static void set(BeanReader beanReader, Object bean, int index, Object value) {
+        try {
+            beanReader.set(bean, index, value);
+        } catch (ClassCastException e) {
+            throw new JsonException("set property error : " + beanReader.getBeanInfo().getProperties()[index].getName(), e);
+        }
+    }
+
+    private long parseDate(String text) {
+        if (dateFormat instanceof DateFormat) {
+            DateFormat format = (DateFormat) dateFormat;
+            try {
+                synchronized (format) {
+                    return format.parse(text).getTime();
+                }
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("illegal date : " + text, e);
+            }
+        }
+
+        char[] chars = text.toCharArray();
+        if (dateFormat == null) {
+            return DatePattern.parseDefault(chars, 0, chars.length);
+        }
+        return ((DatePattern) dateFormat).parse(chars, 0, chars.length);
+    }
+
+    private static Object toDate(Class<?> clazz, long millis) {
+        if (clazz == Date.class) {
+            return new Date(millis);
+        }
+        if (Calendar.class.isAssignableFrom(clazz)) {
+            Calendar calendar = clazz.isAssignableFrom(Calendar.class) ? Calendar.getInstance() : (Calendar) newInstance(clazz);
+            calendar.setTimeInMillis(millis);
+            return calendar;
+        }
+        try {
+            return clazz.getConstructor(long.class).newInstance(millis); // java.sql dates
+        } catch (NoSuchMethodException e) {
+            Date date = (Date) newInstance(clazz);
+            date.setTime(millis);
+            return date;
+        } catch (InvocationTargetException e) {
+            throw new JsonException("create instance error : " + clazz, e);
+        } catch (InstantiationException e) {
+            throw new JsonException("create instance error : " + clazz, e);
+        } catch (IllegalAccessException e) {
+            throw new JsonException("create instance error : " + clazz, e);
+        }
+    }
+
+    private void readItems(Collection<Object> items, Type itemType) {
+        tokenizer.accept(JsonToken.LBRACKET);
+        parser.enterStructure();
+
+        for (;;) {
+            JsonToken token = tokenizer.token();
+
+            if (token == JsonToken.RBRACKET) {
+                break;
+            }
+
+            if (token == JsonToken.COMMA) {
+                tokenizer.nextToken();
+                continue;
+            }
+
+            items.add(read(itemType));
+        }
+
+        tokenizer.accept(JsonToken.RBRACKET);
+        parser.leaveStructure();
+    }
+
+    private void readMap(Map<String, Object> map, Type valueType) {
+        tokenizer.accept(JsonToken.LBRACE);
+        parser.enterStructure();
+
+        for (;;) {
+            JsonToken token = tokenizer.token();
+
+            if (token == JsonToken.RBRACE) {
+                break;
+            }
+
+            if (token == JsonToken.COMMA) {
+                tokenizer.nextToken();
+                continue;
+            }
+
+            if (token != JsonToken.STRING) {
+                throw new IllegalArgumentException("illegal json token : " + token);
+            }
+            String key = tokenizer.stringValue();
+            tokenizer.nextToken();
+            tokenizer.accept(JsonToken.COLON);
+
+            map.put(key, read(valueType));
+        }
+
+        tokenizer.accept(JsonToken.RBRACE);
+        parser.leaveStructure();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> createCollection(Class<?> clazz) {
+        if (clazz.isAssignableFrom(ArrayList.class)) {
+            return new ArrayList<Object>();
+        }
+        if (clazz.isAssignableFrom(LinkedHashSet.class)) {
+            return new LinkedHashSet<Object>();
+        }
+        if (clazz == SortedSet.class || clazz == TreeSet.class) {
+            return new TreeSet<Object>();
+        }
+        return (Collection<Object>) newInstance(clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> createMap(Class<?> clazz) {
+        if (clazz.isAssignableFrom(LinkedHashMap.class)) {
+            return new LinkedHashMap<String, Object>();
+        }
+        if (clazz == SortedMap.class || clazz == TreeMap.class) {
+            return new TreeMap<String, Object>();
+        }
+        return (Map<String, Object>) newInstance(clazz);
+    }
+
+    private static Object newInstance(Class<?> clazz) {
+        try {
+            return clazz.newInstance();
+        } catch (InstantiationException e) {
+            throw new JsonException("create instance error : " + clazz, e);
+        } catch (IllegalAccessException e) {
+            throw new JsonException("create instance error : " + clazz, e);
+        }
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object readEnum(Class<?> clazz, String name) {
+        return Enum.valueOf((Class) clazz, name);
+    }
+
+    private static Type getTypeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    private static Object defaultValue(Class<?> clazz) {
+        if (clazz == boolean.class) {
+            return false;
+        }
+        if (clazz == char.class) {
+            return '\0';
+        }
+        if (clazz == long.class) {
+            return 0L;
+        }
+        if (clazz == double.class) {
+            return 0D;
+        }
+        if (clazz == float.class) {
+            return 0F;
+        }
+        if (clazz == short.class) {
+            return (short) 0;
+        }
+        if (clazz == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+}
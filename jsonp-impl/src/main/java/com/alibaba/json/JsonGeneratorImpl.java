@@ -4,12 +4,13 @@ import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.Writer;
+import java.lang.reflect.Array;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.json.JsonArray;
 import javax.json.JsonConfiguration;
@@ -19,9 +20,36 @@ import javax.json.stream.JsonGenerator;
 
 public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
     public static String DEFFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
-    
+
+    /**
+     * Configuration key of the size of the write buffer: chars, or bytes for {@link JsonUtf8Generator}. The generator
+     * writes to its output each time the buffer is full.
+     */
+    public final static String      BUFFER_SIZE         = "writeBufferSize";
+
+    final static int                DEFAULT_BUFFER_SIZE = 4096;
+
+    /**
+     * Configuration key of whether BigDecimals are written without an exponent, as {@link BigDecimal#toPlainString()}
+     * does, rather than as {@link BigDecimal#toString()} does, which uses one for small or negative scales. False by
+     * default.
+     */
+    public final static String      BIG_DECIMAL_AS_PLAIN = "bigDecimalAsPlain";
+
+    /**
+     * Configuration key of how dates are written: a {@link DatePattern}, a pattern String or one of the names of
+     * {@link DatePattern#of(String)}, or a {@link DateFormat}, which is used under its lock as it is not thread safe.
+     * Dates are written as {@link #DEFFAULT_DATE_FORMAT} in the default time zone by default.
+     */
+    public final static String      DATE_FORMAT          = "dateFormat";
+
     private final Writer            writer;
 
+    /**
+     * Recycler the write buffer is taken from and given back to on close, or null.
+     */
+    final BufferRecycler            recycler;
+
     private char[]                  buf;
     private int                     pos;
 
@@ -31,15 +59,56 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
 
     private Context                 context;
 
+    private final char[]            escapeChars = { '\\', 0, 0, 0, 0, 0 };
+
+    // chars of a number, for numbers not written straight into the buffer
+    final char[]                    numberChars = new char[40];
+
+    private final boolean           bigDecimalAsPlain;
+
+    // the DatePattern or DateFormat of the configuration, once a date is written
+    private Object                  dateFormat;
+    private char[]                  dateChars;
+
     /**
      * Creates a JSON writer which can be used to write a JSON object or array to the specified i/o writer.
      * 
      * @param writer to which JSON object or array is written
      */
     public JsonGeneratorImpl(Writer writer, JsonConfiguration config){
+        this(writer, config, null);
+    }
+
+    /**
+     * @param recycler recycler of the write buffer, or null
+     */
+    public JsonGeneratorImpl(Writer writer, JsonConfiguration config, BufferRecycler recycler){
         this.writer = writer;
-        buf = new char[128];
         this.config = config;
+        this.recycler = recycler;
+        this.bigDecimalAsPlain = JsonStructureImpl.toBooleanValue(config.get(BIG_DECIMAL_AS_PLAIN), false);
+
+        int bufferSize = getBufferSize(config);
+        buf = recycler != null ? recycler.allocChars(BufferRecycler.WRITE_BUFFER, bufferSize, bufferSize) : new char[bufferSize];
+    }
+
+    /**
+     * For subclasses writing to another kind of output, which override the <code>write</code> methods and don't use
+     * the char buffer.
+     */
+    JsonGeneratorImpl(JsonConfiguration config, BufferRecycler recycler){
+        this.writer = null;
+        this.config = config;
+        this.recycler = recycler;
+        this.bigDecimalAsPlain = JsonStructureImpl.toBooleanValue(config.get(BIG_DECIMAL_AS_PLAIN), false);
+    }
+
+    static int getBufferSize(JsonConfiguration config) {
+        int bufferSize = JsonStructureImpl.toIntValue(config.get(BUFFER_SIZE), DEFAULT_BUFFER_SIZE);
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("illegal writeBufferSize : " + bufferSize);
+        }
+        return bufferSize;
     }
 
     public JsonConfiguration getConfig() {
@@ -62,7 +131,7 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
         
         JsonObjectImpl jsonObjectImpl = (JsonObjectImpl) jsonObject;
 
-        for (Map.Entry<?, ?> entry : jsonObjectImpl.entrySet()) {
+        for (Map.Entry<?, ?> entry : jsonObjectImpl.rawEntrySet()) {
             String key = (String) entry.getKey();
             Object value = entry.getValue();
 
@@ -88,11 +157,7 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
 
         beginArray();
         for (int i = 0, size = jsonArray.size(); i < size; ++i) {
-            if (i != 0) {
-                write(',');
-            }
-
-            Object item = jsonArray.get(i);
+            Object item = jsonArray instanceof JsonArrayImpl ? ((JsonArrayImpl) jsonArray).getRaw(i) : jsonArray.get(i);
             writeAny(item);
         }
         endArray();
@@ -112,6 +177,13 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
 
     public JsonGeneratorImpl writeString(String value, boolean isKey, boolean checkSpecial) {
         closeCheck();
+        if (value == null) {
+            if (isKey) {
+                write("\"null\"");
+                return this;
+            }
+            return writeNull();
+        }
         if (!isKey) {
             checkValue();
         }
@@ -123,57 +195,54 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
             return this;
         }
 
-        if (value == null) {
-            return writeNull();
-        }
-
         write('"');
-        for (int i = 0; i < value.length(); ++i) {
+        int start = 0;
+        for (int i = 0, length = value.length(); i < length; ++i) {
             char c = value.charAt(i);
-            if (c == '"') {
-                write('\\');
-                write('"');
-            } else if (c == '\n') {
-                write('\\');
-                write('n');
-            } else if (c == '\r') {
-                write('\\');
-                write('r');
-            } else if (c == '\\') {
-                write('\\');
-                write('\\');
-            } else if (c == '\t') {
-                write('\\');
-                write('t');
-            } else if (c == '\b') {
-                write('\\');
-                write('b');
-            } else if (c == '\f') {
-                write('\\');
-                write('f');
-            } else {
-                if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
-                    char u0 = digits[(c >>> 12) & 15];
-                    char u1 = digits[(c >>> 8) & 15];
-                    char u2 = digits[(c >>> 4) & 15];
-                    char u3 = digits[c & 15];
-
-                    write('\\');
-                    write('u');
-                    write(u0);
-                    write(u1);
-                    write(u2);
-                    write(u3);
-                } else {
-                    write(c);
+            char escape;
+            if (c < 128) {
+                escape = ESCAPES[c];
+                if (escape == 0) {
+                    continue;
                 }
+            } else if (c < '\u00a0' || (c >= '\u2000' && c < '\u2100')) {
+                escape = 'u';
+            } else {
+                continue;
+            }
+
+            if (i > start) {
+                write(value, start, i);
             }
+            writeEscape(c, escape);
+            start = i + 1;
+        }
+        if (start < value.length()) {
+            write(value, start, value.length());
         }
         write('"');
 
         return this;
     }
 
+    /**
+     * Writes the escape sequence of a char, <code>escape</code> being its {@link #ESCAPES} entry.
+     */
+    private void writeEscape(char c, char escape) {
+        char[] chars = escapeChars;
+        chars[1] = escape;
+        if (escape != 'u') {
+            write(chars, 0, 2);
+            return;
+        }
+
+        chars[2] = digits[(c >>> 12) & 15];
+        chars[3] = digits[(c >>> 8) & 15];
+        chars[4] = digits[(c >>> 4) & 15];
+        chars[5] = digits[c & 15];
+        write(chars, 0, 6);
+    }
+
     public JsonGeneratorImpl writeBoolean(boolean value) {
         checkValue();
         write(value ? "true" : "false"); // value ? 1 : 0
@@ -217,6 +286,11 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
         int newcount = pos + size;
         if (newcount > buf.length) {
             flush();
+            if (size > buf.length) {
+                getChars(i, size, numberChars);
+                write(numberChars, 0, size);
+                return this;
+            }
             getChars(i, size, buf);
             pos = size;
         } else {
@@ -226,28 +300,57 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
         return this;
     }
 
+    /**
+     * Writes the shortest decimal that reads back as the same float, or null for NaN and infinities.
+     */
     public JsonGeneratorImpl writeFloat(float value) {
-        checkValue();
-
+        closeCheck();
         if (Float.isNaN(value) || Float.isInfinite(value)) {
             return writeNull();
-        } else {
-            write(Float.toString(value));
         }
+        checkValue();
+
+        writeNumber(value);
         return this;
     }
 
+    /**
+     * Writes the shortest decimal that reads back as the same double, or null for NaN and infinities.
+     */
     public JsonGeneratorImpl writeDouble(double value) {
-        checkValue();
-
+        closeCheck();
         if (Double.isNaN(value) || Double.isInfinite(value)) {
             return writeNull();
-        } else {
-            write(Double.toString(value));
         }
+        checkValue();
+
+        writeNumber(value);
         return this;
     }
 
+    private void writeNumber(double value) {
+        if (buf.length < DoubleToDecimal.MAX_CHARS) {
+            // a buffer too small to always hold a number once flushed
+            write(numberChars, 0, DoubleToDecimal.toChars(value, numberChars, 0));
+            return;
+        }
+        if (pos + DoubleToDecimal.MAX_CHARS > buf.length) {
+            flush();
+        }
+        pos = DoubleToDecimal.toChars(value, buf, pos);
+    }
+
+    private void writeNumber(float value) {
+        if (buf.length < DoubleToDecimal.MAX_CHARS) {
+            write(numberChars, 0, DoubleToDecimal.toChars(value, numberChars, 0));
+            return;
+        }
+        if (pos + DoubleToDecimal.MAX_CHARS > buf.length) {
+            flush();
+        }
+        pos = DoubleToDecimal.toChars(value, buf, pos);
+    }
+
     public JsonGeneratorImpl writeBigDecimal(BigDecimal value) {
         if (value == null) {
             return writeNull();
@@ -255,32 +358,137 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
 
         checkValue();
 
-        write(value.toString());
+        if (value.precision() > 18) {
+            write(bigDecimalAsPlain ? value.toPlainString() : value.toString());
+            return this;
+        }
+
+        // the unscaled value fits in a long: scaling to 0 keeps it compact, unlike unscaledValue()
+        int scale = value.scale();
+        long unscaled = (scale == 0 ? value : value.scaleByPowerOfTen(scale)).longValue();
+        writeDecimal(unscaled, scale);
         return this;
     }
 
+    /**
+     * Writes unscaled 10<sup>-scale</sup> as {@link BigDecimal} does, with an exponent or plain depending on
+     * {@link #BIG_DECIMAL_AS_PLAIN}.
+     */
+    private void writeDecimal(long unscaled, int scale) {
+        char[] chars = numberChars;
+        int p = 0;
+        if (unscaled < 0) {
+            chars[p++] = '-';
+            unscaled = -unscaled;
+        }
+
+        int n = stringSize(unscaled);
+        int adjusted = n - 1 - scale;
+
+        if (!bigDecimalAsPlain && (scale < 0 || adjusted < -6)) {
+            getChars(unscaled, p + n + 1, chars);
+            chars[p] = chars[p + 1];
+            if (n > 1) {
+                chars[p + 1] = '.';
+                p += n + 1;
+            } else {
+                p++;
+            }
+            chars[p++] = 'E';
+            if (adjusted > 0) {
+                chars[p++] = '+';
+            }
+            int size = adjusted < 0 ? stringSize(-adjusted) + 1 : stringSize(adjusted);
+            getChars(adjusted, p + size, chars);
+            write(chars, 0, p + size);
+            return;
+        }
+
+        if (scale <= 0) {
+            getChars(unscaled, p + n, chars);
+            write(chars, 0, p + n);
+            if (unscaled != 0) {
+                for (int i = scale; i < 0; ++i) {
+                    write('0');
+                }
+            }
+            return;
+        }
+
+        if (n > scale) {
+            getChars(unscaled, p + n + 1, chars);
+            System.arraycopy(chars, p + 1, chars, p, n - scale);
+            chars[p + n - scale] = '.';
+            write(chars, 0, p + n + 1);
+            return;
+        }
+
+        chars[p++] = '0';
+        chars[p++] = '.';
+        write(chars, 0, p);
+        for (int i = n; i < scale; ++i) {
+            write('0');
+        }
+        getChars(unscaled, n, chars);
+        write(chars, 0, n);
+    }
+
     public JsonGeneratorImpl writeDate(Date value) {
         if (value == null) {
             return writeNull();
         }
 
+        Object format = getDateFormat();
+        if (format instanceof DateFormat) {
+            DateFormat dateFormat = (DateFormat) format;
+            String formated;
+            synchronized (dateFormat) {
+                formated = dateFormat.format(value);
+            }
+            return writeString(formated);
+        }
+
+        DatePattern pattern = (DatePattern) format;
+        if (pattern.isEpochMillis()) {
+            return writeLong(value.getTime());
+        }
+
+        closeCheck();
         checkValue();
 
-        DateFormat dateFormat = (DateFormat) config.get("dateFormat");
-        if (dateFormat == null) {
-            dateFormat = new SimpleDateFormat(DEFFAULT_DATE_FORMAT);
+        char[] chars = dateChars;
+        if (chars == null || chars.length < pattern.getMaxLength() + 2) {
+            chars = dateChars = new char[pattern.getMaxLength() + 2];
         }
-        String formated = dateFormat.format(value);
-        writeString(formated);
+        chars[0] = '"';
+        int end = pattern.format(value.getTime(), chars, 1);
+        chars[end++] = '"';
+        write(chars, 0, end);
         return this;
     }
 
+    private Object getDateFormat() {
+        if (dateFormat == null) {
+            Object format = config.get(DATE_FORMAT);
+            if (format == null) {
+                format = DatePattern.of(DEFFAULT_DATE_FORMAT);
+            } else if (format instanceof String) {
+                format = DatePattern.of((String) format);
+            } else if (!(format instanceof DatePattern || format instanceof DateFormat)) {
+                throw new IllegalArgumentException("illegal dateFormat : " + format);
+            }
+            dateFormat = format;
+        }
+        return dateFormat;
+    }
+
     public JsonGeneratorImpl writeJavaBean(Object o) {
         if (o == null) {
             return writeNull();
         }
 
-        throw new JsonException("not support type : " + o.getClass());
+        JsonProviderImpl.getBeanWriter(o.getClass()).write(this, o);
+        return this;
     }
 
     public JsonGeneratorImpl writeAny(Object o) {
@@ -326,6 +534,10 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
             return writeBigDecimal((BigDecimal) o);
         }
 
+        if (type == LazyJsonValue.class) {
+            return writeLazyValue((LazyJsonValue) o);
+        }
+
         if (o instanceof JsonObject) {
             return writeJsonObject((JsonObject) o);
         }
@@ -334,9 +546,62 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
             return writeJsonArray((JsonArray) o);
         }
 
+        if (type == Character.class) {
+            return writeString(o.toString());
+        }
+
+        if (type == BigInteger.class) {
+            checkValue();
+            write(o.toString());
+            return this;
+        }
+
+        if (o instanceof Date) {
+            return writeDate((Date) o);
+        }
+
+        if (o instanceof Enum) {
+            return writeString(((Enum<?>) o).name());
+        }
+
+        if (o instanceof Map) {
+            beginObject();
+            for (Entry<?, ?> entry : ((Map<?, ?>) o).entrySet()) {
+                Object key = entry.getKey();
+                writeKey(key == null ? null : key.toString());
+                writeAny(entry.getValue());
+            }
+            return endObject();
+        }
+
+        if (o instanceof Iterable) {
+            beginArray();
+            for (Object item : (Iterable<?>) o) {
+                writeAny(item);
+            }
+            return endArray();
+        }
+
+        if (type.isArray()) {
+            beginArray();
+            for (int i = 0, length = Array.getLength(o); i < length; ++i) {
+                writeAny(Array.get(o, i));
+            }
+            return endArray();
+        }
+
         return writeJavaBean(o);
     }
 
+    /**
+     * Writes an object or array that was read lazily and never got, copying its text as it is.
+     */
+    JsonGeneratorImpl writeLazyValue(LazyJsonValue value) {
+        checkValue();
+        write(value.chars, value.offset, value.length);
+        return this;
+    }
+
     public JsonGeneratorImpl writeKeyValue(String key, Object value) {
         writeKey(key);
         writeAny(value);
@@ -361,6 +626,28 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
         } else {
             writeKeyNotString(key);
         }
+        write(':');
+
+        return this;
+    }
+
+    /**
+     * Writes a key prepared once by {@link SerializedKey}, with its separator and colon, in a single copy.
+     */
+    public JsonGeneratorImpl writeKey(SerializedKey key) {
+        if (context == null || context.structureType != JsonStructureType.Object || context.named) {
+            throw new JsonException("illegal stat. ");
+        }
+
+        write(key, context.itemsCount > 0);
+        context.named = true;
+
+        return this;
+    }
+
+    public JsonGeneratorImpl writeKeyValue(SerializedKey key, Object value) {
+        writeKey(key);
+        writeAny(value);
 
         return this;
     }
@@ -396,14 +683,13 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
         return this;
     }
 
-    private void checkValue() {
+    void checkValue() {
         if (context != null) {
             if (context.structureType == JsonStructureType.Object) {
                 if (!context.named) {
                     throw new JsonException("require name");
                 }
                 context.named = false;
-                write(':');
             } else {
                 if (context.itemsCount > 0) {
                     write(',');
@@ -414,33 +700,66 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
     }
 
     protected void write(String text) {
+        write(text, 0, text.length());
+    }
+
+    /**
+     * Writes the chars of <code>text</code> from <code>start</code> to <code>end</code>, copied in one
+     * {@link String#getChars(int, int, char[], int)} when they fit in the buffer.
+     */
+    protected void write(String text, int start, int end) {
         closeCheck();
 
+        int length = end - start;
         try {
-            if (text.length() > buf.length) {
+            if (length > buf.length - pos) {
                 if (pos > 0) {
                     flush();
                 }
-                writer.write(text);
-            } else {
-                if (text.length() + pos > buf.length) {
-                    int rest = buf.length - pos;
-                    text.getChars(0, rest, buf, pos);
-                    writer.write(buf);
-                    pos = 0;
-
-                    text.getChars(rest, text.length(), buf, 0);
-                    pos = text.length() - rest;
-                } else {
-                    text.getChars(0, text.length(), buf, pos);
-                    pos += text.length();
+                if (length > buf.length) {
+                    writer.write(text, start, length);
+                    return;
                 }
             }
+            text.getChars(start, end, buf, pos);
+            pos += length;
         } catch (IOException e) {
             throw new JsonException(e);
         }
     }
 
+    protected void write(char[] chars, int offset, int length) {
+        closeCheck();
+
+        try {
+            if (length > buf.length - pos) {
+                if (pos > 0) {
+                    flush();
+                }
+                if (length > buf.length) {
+                    writer.write(chars, offset, length);
+                    return;
+                }
+            }
+            System.arraycopy(chars, offset, buf, pos, length);
+            pos += length;
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    /**
+     * Writes a prepared key, with its leading comma if <code>separated</code>.
+     */
+    protected void write(SerializedKey key, boolean separated) {
+        char[] chars = key.chars;
+        if (separated) {
+            write(chars, 0, chars.length);
+        } else {
+            write(chars, 1, chars.length - 1);
+        }
+    }
+
     protected void write(char ch) {
         closeCheck();
 
@@ -464,9 +783,23 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
      */
     @Override
     public void close() {
+        if (closed) {
+            return;
+        }
         flush();
 
         closed = true;
+        releaseBuffer();
+    }
+
+    /**
+     * Gives the write buffer back to the recycler, once closed.
+     */
+    void releaseBuffer() {
+        if (recycler != null && buf != null) {
+            recycler.releaseChars(BufferRecycler.WRITE_BUFFER, buf);
+        }
+        buf = null;
     }
 
     void closeCheck() {
@@ -483,7 +816,6 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
 
         try {
             writer.write(buf, 0, pos);
-            Arrays.fill(buf, '\0');
             pos = 0;
         } catch (IOException e) {
             throw new JsonException(e);
@@ -506,6 +838,24 @@ public class JsonGeneratorImpl implements JsonGenerator, Closeable, Flushable {
 
     final static int[]  sizeTable = { 9, 99, 999, 9999, 99999, 999999, 9999999, 99999999, 999999999, Integer.MAX_VALUE };
 
+    /**
+     * The char following the backslash in the escape sequence of each ASCII char, 'u' for a unicode escape, or 0 for chars
+     * written as they are.
+     */
+    final static char[] ESCAPES   = new char[128];
+    static {
+        for (int i = 0; i < ' '; ++i) {
+            ESCAPES[i] = 'u';
+        }
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+    }
+
     final static char[] digits    = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f',
             'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z' };
 
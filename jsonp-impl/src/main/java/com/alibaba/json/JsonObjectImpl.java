@@ -18,6 +18,9 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
 
     private final Map<String, Object> map;
 
+    // whether some values are objects or arrays not parsed yet, see JsonParserImpl.LAZY
+    private boolean                   lazy;
+
     public JsonObjectImpl(){
         map = new LinkedHashMap<String, Object>();
     }
@@ -27,15 +30,15 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
     }
 
     public JsonObject getJsonObject(String key) {
-        return (JsonObject) map.get(key);
+        return (JsonObject) get(key);
     }
 
     public JsonArray getJsonArray(String key) {
-        return (JsonArray) map.get(key);
+        return (JsonArray) get(key);
     }
 
     public String getString(String key) {
-        Object value = map.get(key);
+        Object value = get(key);
         if (value == null) {
             return null;
         }
@@ -52,7 +55,7 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
     }
 
     public boolean getBooleanValue(String key, boolean defaultValue) {
-        Object value = map.get(key);
+        Object value = get(key);
         return toBooleanValue(value, defaultValue);
     }
 
@@ -61,7 +64,7 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
     }
 
     public int getIntValue(String key, int defaultValue) {
-        Object value = map.get(key);
+        Object value = get(key);
         return toIntValue(value, defaultValue);
     }
 
@@ -70,12 +73,12 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
     }
 
     public long getLongValue(String key, long defaultValue) {
-        Object value = map.get(key);
+        Object value = get(key);
         return toLongValue(value, defaultValue);
     }
 
     public BigDecimal getBigDecimal(String key) {
-        Object value = map.get(key);
+        Object value = get(key);
         return toBigDecimal(value);
     }
 
@@ -93,20 +96,29 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
     }
 
     public boolean containsValue(Object value) {
+        parseLazyValues();
         return map.containsValue(value);
     }
 
     public Object get(String o) {
-        return map.get(o);
+        Object value = map.get(o);
+        if (value instanceof LazyJsonValue) {
+            value = ((LazyJsonValue) value).parse();
+            map.put(o, value);
+        }
+        return value;
     }
 
     @Override
     public Object put(String key, Object value) {
+        if (value instanceof LazyJsonValue) {
+            lazy = true;
+        }
         return map.put(key, value);
     }
 
     public Object remove(Object name) {
-        return map.remove(name);
+        return parse(map.remove(name));
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -124,15 +136,46 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
     }
 
     public Collection<Object> values() {
+        parseLazyValues();
         return map.values();
     }
 
     public Set<Entry<String, Object>> entrySet() {
+        parseLazyValues();
         return map.entrySet();
     }
 
+    /**
+     * Returns the entries with the values not parsed yet left as they are, so that they can be written back untouched.
+     */
+    Set<Entry<String, Object>> rawEntrySet() {
+        return map.entrySet();
+    }
+
+    static Object parse(Object value) {
+        if (value instanceof LazyJsonValue) {
+            return ((LazyJsonValue) value).parse();
+        }
+        return value;
+    }
+
+    private void parseLazyValues() {
+        if (!lazy) {
+            return;
+        }
+
+        for (Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof LazyJsonValue) {
+                entry.setValue(((LazyJsonValue) value).parse());
+            }
+        }
+        lazy = false;
+    }
+
     @Override
     public int hashCode() {
+        parseLazyValues();
         return map.hashCode();
     }
 
@@ -151,6 +194,8 @@ public class JsonObjectImpl extends JsonStructureImpl implements JsonObject {
         }
 
         JsonObjectImpl other = (JsonObjectImpl) obj;
+        this.parseLazyValues();
+        other.parseLazyValues();
         return this.map.equals(other.map);
     }
 
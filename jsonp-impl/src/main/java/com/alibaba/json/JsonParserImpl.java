@@ -1,7 +1,7 @@
 package com.alibaba.json;
 
+import java.io.InputStream;
 import java.io.Reader;
-import java.io.StringReader;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.util.Iterator;
@@ -14,10 +14,48 @@ import javax.json.stream.JsonParser;
 
 public class JsonParserImpl implements JsonParser {
 
+    /**
+     * Configuration name of the lazy mode switch, off by default. In lazy mode the objects and arrays nested in the
+     * object or array being read are not parsed: only their place in the text is kept, and they are parsed when first
+     * got from their parent, or written back as they are. Only a text read in place, from a String, can be read lazily.
+     */
+    public final static String      LAZY = "lazy";
+
+    /**
+     * Configuration name of the paths to read, a {@link JsonPathFilter} or one or more JSON Pointer or JSONPath
+     * expressions as a String, String[] or Collection. When set, the object or array read only holds the values at the
+     * paths and the containers leading to them; every other member or item is skipped without being tokenized.
+     */
+    public final static String      INCLUDE_PATHS = "includePaths";
+
+    /**
+     * Configuration name of the format {@link #parseAny(Type)} reads dates in, the same as
+     * {@link JsonGeneratorImpl#DATE_FORMAT}: a {@link DatePattern}, its pattern or name as a String, or a
+     * {@link java.text.DateFormat}. Numbers are always read as epoch millis. Without it, strings are read as ISO 8601
+     * or as {@link JsonGeneratorImpl#DEFFAULT_DATE_FORMAT}.
+     */
+    public final static String      DATE_FORMAT = JsonGeneratorImpl.DATE_FORMAT;
+
+    /**
+     * Configuration name of the maximum number of objects and arrays nested in one another, 1000 by default. A deeper
+     * text is rejected with an {@link IllegalArgumentException}, rather than exhausting the stack of the recursive
+     * reads or growing the event parser without bounds.
+     */
+    public final static String      MAX_DEPTH = "maxDepth";
+
+    final static int                DEFAULT_MAX_DEPTH = 1000;
+
     private final JsonTokenizer     tokenizer;
     private final JsonConfiguration config;
+    private final boolean           lazy;
+    private final JsonPathFilter    filter;
+    private final int               maxDepth;
+
+    // objects and arrays entered by the recursive reads
+    private int                     depth;
 
     private EventIterator           iterator;
+    private JsonBeanReader          beanReader;
 
     /**
      * Creates a JSON reader from a character stream
@@ -26,21 +64,133 @@ public class JsonParserImpl implements JsonParser {
      * @return a JSON reader
      */
     public JsonParserImpl(Reader reader, JsonConfiguration config){
-        this.tokenizer = new JsonTokenizer(reader);
+        this(reader, config, null);
+    }
+
+    /**
+     * Creates a JSON reader from a character stream, interning object keys in the symbol table
+     * 
+     * @param reader a reader from which JSON is to be read
+     * @param symbolTable table in which object keys are interned, or null
+     */
+    public JsonParserImpl(Reader reader, JsonConfiguration config, SymbolTable symbolTable){
+        this(reader, config, symbolTable, null);
+    }
+
+    /**
+     * @param recycler recycler of the read buffer, given back when the parser is closed, or null
+     */
+    public JsonParserImpl(Reader reader, JsonConfiguration config, SymbolTable symbolTable, BufferRecycler recycler){
+        this.tokenizer = new JsonTokenizer(reader, config, symbolTable, recycler);
         this.config = config;
+        this.lazy = false;
+        this.filter = JsonPathFilter.of(config.get(INCLUDE_PATHS));
+        this.maxDepth = getMaxDepth(config);
+    }
+
+    /**
+     * Creates a JSON reader from a UTF-8 byte stream
+     * 
+     * @param in a byte stream from which JSON is to be read
+     */
+    public JsonParserImpl(InputStream in, JsonConfiguration config){
+        this(in, config, null);
+    }
+
+    public JsonParserImpl(InputStream in, JsonConfiguration config, SymbolTable symbolTable){
+        this(in, config, symbolTable, null);
+    }
+
+    /**
+     * @param recycler recycler of the read buffers, given back when the parser is closed, or null
+     */
+    public JsonParserImpl(InputStream in, JsonConfiguration config, SymbolTable symbolTable, BufferRecycler recycler){
+        this.tokenizer = new JsonTokenizer(in, config, symbolTable, recycler);
+        this.config = config;
+        this.lazy = false;
+        this.filter = JsonPathFilter.of(config.get(INCLUDE_PATHS));
+        this.maxDepth = getMaxDepth(config);
     }
 
     public JsonParserImpl(String text){
-        this(new StringReader(text), new JsonConfiguration());
+        this(text, new JsonConfiguration());
+    }
+
+    /**
+     * Creates a JSON reader over an in-memory text, which is copied once into a char array read in place
+     * 
+     * @param text the JSON text
+     */
+    public JsonParserImpl(String text, JsonConfiguration config){
+        this(text, config, null);
+    }
+
+    public JsonParserImpl(String text, JsonConfiguration config, SymbolTable symbolTable){
+        this(text, config, symbolTable, null);
+    }
+
+    /**
+     * @param recycler recycler of the buffer strings are unescaped in, given back when the parser is closed, or null
+     */
+    public JsonParserImpl(String text, JsonConfiguration config, SymbolTable symbolTable, BufferRecycler recycler){
+        this.tokenizer = new JsonTokenizer(text.toCharArray(), 0, text.length(), config, symbolTable, recycler);
+        this.config = config;
+        this.lazy = JsonStructureImpl.toBooleanValue(config.get(LAZY), false);
+        this.filter = JsonPathFilter.of(config.get(INCLUDE_PATHS));
+        this.maxDepth = getMaxDepth(config);
+    }
+
+    /**
+     * Creates a JSON reader over a range of a character array, which is read in place
+     */
+    public JsonParserImpl(char[] chars, int offset, int length, JsonConfiguration config, SymbolTable symbolTable){
+        this.tokenizer = new JsonTokenizer(chars, offset, length, config, symbolTable);
+        this.config = config;
+        this.lazy = JsonStructureImpl.toBooleanValue(config.get(LAZY), false);
+        this.filter = JsonPathFilter.of(config.get(INCLUDE_PATHS));
+        this.maxDepth = getMaxDepth(config);
     }
 
     public JsonConfiguration getConfig() {
         return config;
     }
 
+    static int getMaxDepth(JsonConfiguration config) {
+        int maxDepth = JsonStructureImpl.toIntValue(config.get(MAX_DEPTH), DEFAULT_MAX_DEPTH);
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("illegal maxDepth : " + maxDepth);
+        }
+        return maxDepth;
+    }
+
+    /**
+     * Counts an object or array read recursively, below the ones the events are in if any.
+     */
+    void enterStructure() {
+        int eventDepth = iterator == null ? 0 : iterator.depth + 1;
+        if (++depth + eventDepth > maxDepth) {
+            throw new IllegalArgumentException("illegal depth, max depth : " + maxDepth);
+        }
+    }
+
+    void leaveStructure() {
+        depth--;
+    }
+
     public Object parseAny() {
+        advanceEvents();
+        if (filter != null) {
+            return parseFiltered(filter.getRoot());
+        }
+        return parseValue();
+    }
+
+    /**
+     * Reads the current value whole, whatever the paths to include.
+     */
+    Object parseValue() {
         if (tokenizer.token() == JsonToken.LBRACE) {
-            return parseJsonObject();
+            return readJsonObject();
         }
 
         JsonToken token = tokenizer.token();
@@ -59,7 +209,7 @@ public class JsonParserImpl implements JsonParser {
         }
 
         if (token == JsonToken.DOUBLE) {
-            Object value = tokenizer.doubleValue();
+            Object value = tokenizer.isBigNumber() ? tokenizer.decimalValue() : (Object) tokenizer.doubleValue();
             tokenizer.nextToken();
             return value;
         }
@@ -71,7 +221,7 @@ public class JsonParserImpl implements JsonParser {
         }
 
         if (token == JsonToken.LBRACKET) {
-            return parseJsonArray();
+            return readJsonArray();
         }
 
         if (token == JsonToken.TRUE) {
@@ -93,7 +243,16 @@ public class JsonParserImpl implements JsonParser {
     }
 
     public JsonArray parseJsonArray() {
+        advanceEvents();
+        if (filter != null && !filter.getRoot().included) {
+            return parseFilteredArray(filter.getRoot());
+        }
+        return readJsonArray();
+    }
+
+    private JsonArray readJsonArray() {
         tokenizer.accept(JsonToken.LBRACKET);
+        enterStructure();
         JsonArrayImpl array = new JsonArrayImpl();
 
         for (;;) {
@@ -108,11 +267,12 @@ public class JsonParserImpl implements JsonParser {
                 continue;
             }
 
-            Object item = parseAny();
+            Object item = lazy ? parseLazy() : parseValue();
             array.add(item);
         }
 
         tokenizer.accept(JsonToken.RBRACKET);
+        leaveStructure();
         return array;
     }
 
@@ -125,7 +285,16 @@ public class JsonParserImpl implements JsonParser {
      * @throws IllegalStateException if this method or close method is already called
      */
     public JsonObject parseJsonObject() {
+        advanceEvents();
+        if (filter != null && !filter.getRoot().included) {
+            return parseFilteredObject(filter.getRoot());
+        }
+        return readJsonObject();
+    }
+
+    private JsonObject readJsonObject() {
         tokenizer.accept(JsonToken.LBRACE);
+        enterStructure();
         JsonObject map = new JsonObjectImpl();
 
         for (;;) {
@@ -151,15 +320,121 @@ public class JsonParserImpl implements JsonParser {
 
             tokenizer.accept(JsonToken.COLON);
 
-            Object value = parseAny();
+            Object value = lazy ? parseLazy() : parseValue();
 
             map.put(key, value);
         }
 
+        tokenizer.accept(JsonToken.RBRACE);
+        leaveStructure();
+        return map;
+    }
+
+    private Object parseFiltered(JsonPathFilter.Node node) {
+        JsonToken token = tokenizer.token();
+        if (node.included) {
+            return parseValue();
+        }
+        if (token == JsonToken.LBRACE) {
+            return parseFilteredObject(node);
+        }
+        if (token == JsonToken.LBRACKET) {
+            return parseFilteredArray(node);
+        }
+        return parseValue();
+    }
+
+    private JsonObject parseFilteredObject(JsonPathFilter.Node node) {
+        tokenizer.accept(JsonToken.LBRACE);
+        JsonObject map = new JsonObjectImpl();
+
+        for (;;) {
+            JsonToken token = tokenizer.token();
+
+            if (token == JsonToken.RBRACE) {
+                break;
+            }
+
+            if (token == JsonToken.COMMA) {
+                tokenizer.nextToken();
+                continue;
+            }
+
+            if (token != JsonToken.STRING) {
+                throw new IllegalArgumentException("illegal json token : " + token);
+            }
+            String key = tokenizer.stringValue();
+            tokenizer.nextToken();
+            tokenizer.accept(JsonToken.COLON);
+
+            JsonPathFilter.Node child = node.getChild(key);
+            if (child == null) {
+                skipToken();
+            } else if (child.included) {
+                map.put(key, lazy ? parseLazy() : parseValue());
+            } else if (tokenizer.token() == JsonToken.LBRACE) {
+                map.put(key, parseFilteredObject(child));
+            } else if (tokenizer.token() == JsonToken.LBRACKET) {
+                map.put(key, parseFilteredArray(child));
+            } else {
+                // a single value where the path goes deeper
+                skipToken();
+            }
+        }
+
         tokenizer.accept(JsonToken.RBRACE);
         return map;
     }
 
+    private JsonArray parseFilteredArray(JsonPathFilter.Node node) {
+        tokenizer.accept(JsonToken.LBRACKET);
+        JsonArrayImpl array = new JsonArrayImpl();
+
+        int index = 0;
+        for (;;) {
+            JsonToken token = tokenizer.token();
+
+            if (token == JsonToken.RBRACKET) {
+                break;
+            }
+
+            if (token == JsonToken.COMMA) {
+                tokenizer.nextToken();
+                continue;
+            }
+
+            JsonPathFilter.Node child = node.getChild(index++);
+            if (child == null) {
+                skipToken();
+            } else if (child.included) {
+                array.add(lazy ? parseLazy() : parseValue());
+            } else if (token == JsonToken.LBRACE) {
+                array.add(parseFilteredObject(child));
+            } else if (token == JsonToken.LBRACKET) {
+                array.add(parseFilteredArray(child));
+            } else {
+                skipToken();
+            }
+        }
+
+        tokenizer.accept(JsonToken.RBRACKET);
+        return array;
+    }
+
+    /**
+     * Keeps the place of a nested object or array in the text instead of parsing it.
+     */
+    private Object parseLazy() {
+        JsonToken token = tokenizer.token();
+        if (token != JsonToken.LBRACE && token != JsonToken.LBRACKET) {
+            return parseValue();
+        }
+
+        int start = tokenizer.tokenOffset();
+        int end = tokenizer.skipStructure();
+        return new LazyJsonValue(tokenizer.getBuffer(), start, end - start, config, tokenizer.getSymbolTable());
+    }
+
     /**
      * Closes this reader and frees any resources associated with the reader. This doesn't close the underlying input
      * source.
@@ -178,217 +453,312 @@ public class JsonParserImpl implements JsonParser {
         return iterator;
     }
 
+    /**
+     * Moves past the value of the last event, for reading whole values after pulling events.
+     */
+    private void advanceEvents() {
+        if (iterator != null) {
+            iterator.advance();
+        }
+    }
+
+    /**
+     * Returns the depth of the object or array the last event is in, 0 for the outermost one, or -1 outside of any.
+     */
     public int getDepth() {
-        return iterator.context.depth;
+        return iterator == null ? -1 : iterator.depth;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return iterator().hasNext();
+    }
+
+    @Override
+    public Event next() {
+        return iterator().next();
+    }
+
+    /**
+     * Returns the token of the value of the last event, which the tokenizer is still on, or null.
+     */
+    private JsonToken valueToken() {
+        return iterator == null ? null : iterator.valueToken;
     }
 
     @Override
     public String getString() {
-        Object value = iterator.context.value;
+        JsonToken token = valueToken();
+        if (token == JsonToken.STRING) {
+            return tokenizer.stringValue();
+        }
+        if (token == JsonToken.INT || token == JsonToken.DOUBLE) {
+            return new String(tokenizer.textChars(), tokenizer.textOffset(), tokenizer.textLength());
+        }
+        if (token == JsonToken.TRUE) {
+            return "true";
+        }
+        if (token == JsonToken.FALSE) {
+            return "false";
+        }
+        return null;
+    }
 
-        if (value == null) {
-            return null;
+    /**
+     * Returns the chars of the name, string or number of the last event, from {@link #getTextOffset()} for
+     * {@link #getTextLength()} chars, with no String created. They are only valid until the next event, and must not
+     * be modified. Returns null after other events.
+     */
+    @Override
+    public char[] getTextCharacters() {
+        JsonToken token = valueToken();
+        if (token == JsonToken.STRING || token == JsonToken.INT || token == JsonToken.DOUBLE) {
+            return tokenizer.textChars();
         }
+        return null;
+    }
 
-        if (value instanceof String) {
-            return (String) value;
+    @Override
+    public int getTextOffset() {
+        JsonToken token = valueToken();
+        if (token == JsonToken.STRING || token == JsonToken.INT || token == JsonToken.DOUBLE) {
+            return tokenizer.textOffset();
         }
+        return 0;
+    }
 
-        return value.toString();
+    @Override
+    public int getTextLength() {
+        JsonToken token = valueToken();
+        if (token == JsonToken.STRING || token == JsonToken.INT || token == JsonToken.DOUBLE) {
+            return tokenizer.textLength();
+        }
+        return 0;
     }
 
     @Override
     public int getIntValue() {
-        Object value = iterator.context.value;
+        JsonToken token = valueToken();
 
-        if (value == null) {
-            return 0;
+        if (token == JsonToken.INT) {
+            return (int) tokenizer.longValue();
         }
 
-        if (value instanceof Integer) {
-            return (Integer) value;
+        if (token == JsonToken.DOUBLE) {
+            return tokenizer.isBigNumber() ? tokenizer.decimalValue().intValue() : (int) tokenizer.doubleValue();
         }
 
-        if (value instanceof Number) {
-            return ((Number) value).intValue();
+        if (token == JsonToken.STRING) {
+            return Integer.parseInt(tokenizer.stringValue());
         }
 
-        if (value instanceof String) {
-            return Integer.parseInt((String) value);
+        if (token == null || token == JsonToken.NULL) {
+            return 0;
         }
 
-        throw new JsonException("can not cast to int : " + value);
+        throw new JsonException("can not cast to int : " + getString());
     }
 
     @Override
     public long getLongValue() {
-        Object value = iterator.context.value;
+        JsonToken token = valueToken();
 
-        if (value == null) {
-            return 0;
+        if (token == JsonToken.INT) {
+            return tokenizer.longValue();
         }
 
-        if (value instanceof Long) {
-            return (Long) value;
+        if (token == JsonToken.DOUBLE) {
+            return tokenizer.isBigNumber() ? tokenizer.decimalValue().longValue() : (long) tokenizer.doubleValue();
         }
 
-        if (value instanceof Number) {
-            return ((Number) value).longValue();
+        if (token == JsonToken.STRING) {
+            return Long.parseLong(tokenizer.stringValue());
         }
 
-        if (value instanceof String) {
-            return Long.parseLong((String) value);
+        if (token == null || token == JsonToken.NULL) {
+            return 0;
         }
 
-        throw new JsonException("can not cast to long : " + value);
+        throw new JsonException("can not cast to long : " + getString());
     }
 
     @Override
     public BigDecimal getBigDecimalValue() {
-        Object value = iterator.context.value;
+        JsonToken token = valueToken();
+
+        if (token == JsonToken.INT || token == JsonToken.DOUBLE) {
+            return tokenizer.decimalValue();
+        }
 
-        if (value == null) {
+        if (token == JsonToken.STRING) {
+            return new BigDecimal(tokenizer.stringValue());
+        }
+
+        if (token == null || token == JsonToken.NULL) {
             return null;
         }
 
-        if (value instanceof BigDecimal) {
-            return (BigDecimal) value;
+        throw new JsonException("can not cast to BigDecimal : " + getString());
+    }
+
+    /**
+     * Returns the number as a double, from the tokenizer which has already converted it, so that no BigDecimal is
+     * created, even with {@link JsonTokenizer#USE_BIG_DECIMAL} on.
+     */
+    @Override
+    public double getDoubleValue() {
+        JsonToken token = valueToken();
+
+        if (token == JsonToken.INT || token == JsonToken.DOUBLE) {
+            return tokenizer.doubleValue();
+        }
+
+        if (token == JsonToken.STRING) {
+            return Double.parseDouble(tokenizer.stringValue());
         }
 
-        if (value instanceof Number || value instanceof String) {
-            return new BigDecimal(value.toString());
+        if (token == null || token == JsonToken.NULL) {
+            return 0;
         }
 
-        throw new JsonException("can not cast to int : " + value);
+        throw new JsonException("can not cast to double : " + getString());
+    }
+
+    @Override
+    public boolean isIntegralNumber() {
+        JsonToken token = valueToken();
+        return (token == JsonToken.INT || token == JsonToken.DOUBLE) && tokenizer.isIntegral();
     }
 
+    /**
+     * Skips the next value: after a {@link Event#KEY_NAME} event the value of the member, otherwise the next member of
+     * the current object or the next item of the current array. An object or array is skipped with all its contents
+     * without tokenizing it.
+     */
+    @Override
+    public void skipValue() {
+        EventIterator iterator = (EventIterator) iterator();
+        iterator.advance();
+        iterator.popEnded();
+        int depth = iterator.depth;
+
+        skipToken();
+        if (depth != -1 && iterator.types[depth] == JsonStructureType.Object && tokenizer.token() == JsonToken.COLON) {
+            // the skipped string was a key
+            tokenizer.nextToken();
+            skipToken();
+        }
+
+        if (depth != -1) {
+            if (tokenizer.token() == JsonToken.COMMA) {
+                tokenizer.nextToken();
+            }
+        }
+    }
+
+    void skipToken() {
+        JsonToken token = tokenizer.token();
+        if (token == JsonToken.LBRACE || token == JsonToken.LBRACKET) {
+            tokenizer.skipStructure();
+        } else if (token != JsonToken.RBRACE && token != JsonToken.RBRACKET && token != JsonToken.EOF) {
+            tokenizer.nextToken();
+        }
+    }
+
+    /**
+     * After a {@link Event#START_OBJECT} or {@link Event#START_ARRAY} event, skips the contents of the object or array
+     * without tokenizing them, so that the next event is the one after its end. Does nothing after other events.
+     */
+    @Override
+    public void skipChildren() {
+        EventIterator iterator = (EventIterator) iterator();
+        int depth = iterator.depth;
+        if (depth == -1 || (iterator.events[depth] != Event.START_OBJECT && iterator.events[depth] != Event.START_ARRAY)) {
+            return;
+        }
+
+        JsonToken token = tokenizer.token();
+        if (token == JsonToken.RBRACE || token == JsonToken.RBRACKET) {
+            tokenizer.nextToken();
+        } else if (token == JsonToken.LBRACE || token == JsonToken.LBRACKET) {
+            tokenizer.skip(2);
+        } else {
+            tokenizer.skip(1);
+        }
+
+        iterator.events[depth] = iterator.types[depth] == JsonStructureType.Object ? Event.END_OBJECT : Event.END_ARRAY;
+    }
+
+    /**
+     * Iterates over the events without boxing values: the tokenizer is left on the token of a scalar event, for the
+     * getters of the parser to read, and only moves past it when the next event is asked for. The objects and arrays
+     * the events are in are kept in arrays indexed by depth, which grow as needed up to {@link #MAX_DEPTH}, so that
+     * nothing is allocated per object or array.
+     */
     class EventIterator implements Iterator<Event> {
 
-        private Context context;
+        // the type of each open object or array, and the last event in it, the innermost at depth
+        JsonStructureType[] types  = new JsonStructureType[16];
+        Event[]             events = new Event[16];
+        int                 depth  = -1;
+
+        // the token of the value of the last event, still current in the tokenizer, or null
+        private JsonToken   valueToken;
+        private boolean     key;
 
         @Override
         public boolean hasNext() {
+            if (valueToken != null) {
+                // a value in an object or array is followed at least by its end
+                return depth != -1;
+            }
             return tokenizer.token() != JsonToken.EOF;
         }
 
         @Override
         public Event next() {
-            if (context != null && (context.event == Event.END_OBJECT || context.event == Event.END_ARRAY)) {
-                context = context.parent;
-                if (tokenizer.token() == JsonToken.COMMA) {
-                    tokenizer.nextToken();
-                }
-            }
+            advance();
+            popEnded();
 
             JsonToken token = tokenizer.token();
+            if (token == JsonToken.COMMA && depth != -1) {
+                // after a value read whole
+                tokenizer.nextToken();
+                token = tokenizer.token();
+            }
 
             switch (token) {
                 case LBRACE:
-                    Context objSubContext = new Context(context, JsonStructureType.Object, Event.START_OBJECT);
+                    push(JsonStructureType.Object, Event.START_OBJECT);
                     tokenizer.nextToken();
-                    context = objSubContext;
                     return Event.START_OBJECT;
                 case RBRACE:
                     tokenizer.nextToken();
-                    return context.event = Event.END_OBJECT;
+                    return events[depth] = Event.END_OBJECT;
                 case LBRACKET:
-                    Context subArrayContext = new Context(context, JsonStructureType.Array, Event.START_ARRAY);
+                    push(JsonStructureType.Array, Event.START_ARRAY);
                     tokenizer.nextToken();
-                    context = subArrayContext;
                     return Event.START_ARRAY;
                 case RBRACKET:
                     tokenizer.nextToken();
-                    return context.event = Event.END_ARRAY;
+                    return events[depth] = Event.END_ARRAY;
                 case TRUE:
-                    if (context != null) {
-                        context.value = true;
-                        tokenizer.nextToken();
-                        if (tokenizer.token() == JsonToken.COMMA) {
-                            tokenizer.nextToken();
-                        }
-                    } else {
-                        tokenizer.nextToken();
-                    }
-                    return context.event = Event.VALUE_TRUE;
+                    return value(token, Event.VALUE_TRUE);
                 case FALSE:
-                    if (context != null) {
-                        context.value = false;
-                        tokenizer.nextToken();
-                        if (tokenizer.token() == JsonToken.COMMA) {
-                            tokenizer.nextToken();
-                        }
-                    } else {
-                        tokenizer.nextToken();
-                    }
-                    return context.event = Event.VALUE_FALSE;
+                    return value(token, Event.VALUE_FALSE);
                 case NULL:
-                    if (context != null) {
-                        context.value = null;
-                        tokenizer.nextToken();
-                        if (tokenizer.token() == JsonToken.COMMA) {
-                            tokenizer.nextToken();
-                        }
-                    } else {
-                        tokenizer.nextToken();
-                    }
-                    return context.event = Event.VALUE_NULL;
+                    return value(token, Event.VALUE_NULL);
                 case STRING:
-                    if (context != null) {
-                        if (context.structureType == JsonStructureType.Object) {
-                            switch (context.event) {
-                                case START_OBJECT:
-                                case VALUE_FALSE:
-                                case VALUE_INTEGER:
-                                case VALUE_DECIMAL:
-                                case VALUE_NULL:
-                                case VALUE_STRING:
-                                case VALUE_TRUE:
-                                    tokenizer.nextToken();
-                                    context.event = Event.KEY_NAME;
-                                    context.value = tokenizer.stringValue();
-                                    tokenizer.accept(JsonToken.COLON);
-                                    return context.event;
-                                case KEY_NAME:
-                                    context.value = tokenizer.stringValue();
-                                    tokenizer.nextToken();
-                                    if (tokenizer.token() == JsonToken.COMMA) {
-                                        tokenizer.nextToken();
-                                    }
-                                    return context.event = Event.VALUE_STRING;
-                                default:
-                                    throw new JsonException("syntax error");
-                            }
-                        } else {
-                            context.value = tokenizer.stringValue();
-                            tokenizer.nextToken();
-                            if (tokenizer.token() == JsonToken.COMMA) {
-                                tokenizer.nextToken();
-                            }
-                            return context.event = Event.VALUE_STRING;
-                        }
+                    // a string of an object followed by a colon is a key
+                    if (depth != -1 && types[depth] == JsonStructureType.Object && tokenizer.isColonNext()) {
+                        key = true;
+                        return value(token, Event.KEY_NAME);
                     }
+                    return value(token, Event.VALUE_STRING);
                 case INT:
-                    if (context != null) {
-                        context.value = tokenizer.longValue();
-                        tokenizer.nextToken();
-                        if (tokenizer.token() == JsonToken.COMMA) {
-                            tokenizer.nextToken();
-                        }
-                    } else {
-                        tokenizer.nextToken();
-                    }
-                    return context.event = Event.VALUE_INTEGER;
+                    return value(token, Event.VALUE_INTEGER);
                 case DOUBLE:
-                    if (context != null) {
-                        context.value = tokenizer.doubleValue();
-                        tokenizer.nextToken();
-                        if (tokenizer.token() == JsonToken.COMMA) {
-                            tokenizer.nextToken();
-                        }
-                    } else {
-                        tokenizer.nextToken();
-                    }
-                    return context.event = Event.VALUE_INTEGER;
+                    return value(token, tokenizer.isIntegral() ? Event.VALUE_INTEGER : Event.VALUE_DECIMAL);
                 case EOF:
                     return null;
                 default:
@@ -396,32 +766,74 @@ public class JsonParserImpl implements JsonParser {
             }
         }
 
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException();
+        private Event value(JsonToken token, Event event) {
+            valueToken = token;
+            if (depth != -1) {
+                events[depth] = event;
+            }
+            return event;
         }
-    }
 
-    private static class Context {
+        private void push(JsonStructureType type, Event event) {
+            if (++depth == maxDepth) {
+                throw new IllegalArgumentException("illegal depth, max depth : " + maxDepth);
+            }
+            if (depth == types.length) {
+                int size = Math.min(types.length * 2, maxDepth);
+                JsonStructureType[] newTypes = new JsonStructureType[size];
+                Event[] newEvents = new Event[size];
+                System.arraycopy(types, 0, newTypes, 0, depth);
+                System.arraycopy(events, 0, newEvents, 0, depth);
+                types = newTypes;
+                events = newEvents;
+            }
+            types[depth] = type;
+            events[depth] = event;
+        }
 
-        final Context           parent;
-        final JsonStructureType structureType;
-        Event                   event;
-        Object                  value;
-        int                     depth;
+        /**
+         * Moves the tokenizer past the value of the last event, the colon after a key, or the comma after a value.
+         */
+        void advance() {
+            if (valueToken == null) {
+                return;
+            }
+            valueToken = null;
+
+            tokenizer.nextToken();
+            if (key) {
+                key = false;
+                tokenizer.nextToken();
+            } else if (depth != -1 && tokenizer.token() == JsonToken.COMMA) {
+                tokenizer.nextToken();
+            }
+        }
 
-        public Context(Context parent, JsonStructureType structureType, Event event){
-            this.parent = parent;
-            if (parent != null) {
-                this.depth = parent.depth + 1;
+        /**
+         * Leaves the object or array that the last event ended.
+         */
+        void popEnded() {
+            if (depth != -1 && (events[depth] == Event.END_OBJECT || events[depth] == Event.END_ARRAY)) {
+                depth--;
+                if (tokenizer.token() == JsonToken.COMMA) {
+                    tokenizer.nextToken();
+                }
             }
-            this.structureType = structureType;
-            this.event = event;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
         }
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T parseAny(Type type) {
-        throw new UnsupportedOperationException();
+        advanceEvents();
+        if (beanReader == null) {
+            beanReader = new JsonBeanReader(this, tokenizer);
+        }
+        return (T) beanReader.read(type);
     }
 }
@@ -0,0 +1,253 @@
+package com.alibaba.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A set of paths to read out of a document, compiled into a tree of names. Paths are either JSON Pointers (<a
+ * href="http://tools.ietf.org/html/rfc6901">RFC 6901</a>), like <code>/user/name</code> or <code>/items/0</code>, or
+ * simple JSONPath expressions, like <code>$.user.name</code>, <code>$['user']['name']</code> or
+ * <code>$.items[*].id</code>, where <code>*</code> matches any member or item.
+ * <p>
+ * A filter is immutable, so one can be compiled once and put in the configuration of every reader, see
+ * {@link JsonParserImpl#INCLUDE_PATHS}.
+ */
+public class JsonPathFilter {
+
+    // marks a wildcard segment, compared by identity so that a "*" key of a JSON Pointer stays a plain name
+    private final static String ANY = new String("*");
+
+    private final Node          root;
+
+    private JsonPathFilter(Node root){
+        this.root = root;
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    public static JsonPathFilter compile(String... paths) {
+        List<String[]> segments = new ArrayList<String[]>(paths.length);
+        for (String path : paths) {
+            segments.add(path.startsWith("$") ? parsePath(path) : parsePointer(path));
+        }
+        return new JsonPathFilter(build(segments, 0));
+    }
+
+    /**
+     * Returns the filter configured by a {@link JsonPathFilter}, a path, or an array or collection of paths.
+     */
+    static JsonPathFilter of(Object value) {
+        if (value == null) {
+            return null;
+        }
+
+        if (value instanceof JsonPathFilter) {
+            return (JsonPathFilter) value;
+        }
+
+        if (value instanceof String) {
+            return compile((String) value);
+        }
+
+        if (value instanceof String[]) {
+            return compile((String[]) value);
+        }
+
+        if (value instanceof Collection) {
+            Collection<?> paths = (Collection<?>) value;
+            return compile(paths.toArray(new String[paths.size()]));
+        }
+
+        throw new ClassCastException("can not cast " + value.getClass() + " to JsonPathFilter");
+    }
+
+    private static Node build(List<String[]> paths, int depth) {
+        Node node = new Node();
+        for (String[] path : paths) {
+            if (path.length == depth) {
+                node.included = true;
+                return node;
+            }
+        }
+
+        List<String[]> anyPaths = new ArrayList<String[]>();
+        Map<String, List<String[]>> groups = new LinkedHashMap<String, List<String[]>>();
+        for (String[] path : paths) {
+            String name = path[depth];
+            if (name == ANY) {
+                anyPaths.add(path);
+                continue;
+            }
+
+            List<String[]> group = groups.get(name);
+            if (group == null) {
+                group = new ArrayList<String[]>();
+                groups.put(name, group);
+            }
+            group.add(path);
+        }
+
+        if (!groups.isEmpty()) {
+            node.children = new HashMap<String, Node>(groups.size() * 2);
+            for (Map.Entry<String, List<String[]>> entry : groups.entrySet()) {
+                List<String[]> group = entry.getValue();
+                group.addAll(anyPaths); // a wildcard also goes through the names
+                node.children.put(entry.getKey(), build(group, depth + 1));
+            }
+            indexItems(node);
+        }
+        if (!anyPaths.isEmpty()) {
+            node.any = build(anyPaths, depth + 1);
+        }
+        return node;
+    }
+
+    /**
+     * Indexes the children whose names are array indexes, so that items are looked up by int.
+     */
+    private static void indexItems(Node node) {
+        Map<Integer, Node> items = new TreeMap<Integer, Node>();
+        for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+            int index = toIndex(entry.getKey());
+            if (index != -1) {
+                items.put(index, entry.getValue());
+            }
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+
+        node.indexes = new int[items.size()];
+        node.items = new Node[items.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Node> entry : items.entrySet()) {
+            node.indexes[i] = entry.getKey();
+            node.items[i++] = entry.getValue();
+        }
+    }
+
+    /**
+     * Returns the index named in the form of Integer.toString, or -1.
+     */
+    private static int toIndex(String name) {
+        int len = name.length();
+        if (len == 0 || len > 9 || (name.charAt(0) == '0' && len > 1)) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < len; ++i) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    private static String[] parsePointer(String pointer) {
+        if (pointer.length() == 0) {
+            return new String[0];
+        }
+
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("illegal path : " + pointer);
+        }
+
+        String[] segments = pointer.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; ++i) {
+            if (segments[i].indexOf('~') != -1) {
+                segments[i] = segments[i].replace("~1", "/").replace("~0", "~");
+            }
+        }
+        return segments;
+    }
+
+    private static String[] parsePath(String path) {
+        List<String> segments = new ArrayList<String>();
+
+        int i = 1;
+        final int len = path.length();
+        while (i < len) {
+            char c = path.charAt(i);
+            if (c == '.') {
+                int start = ++i;
+                while (i < len && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    ++i;
+                }
+                if (i == start) {
+                    throw new IllegalArgumentException("illegal path : " + path);
+                }
+                String name = path.substring(start, i);
+                segments.add("*".equals(name) ? ANY : name);
+            } else if (c == '[') {
+                int end = path.indexOf(']', i);
+                if (end == -1) {
+                    throw new IllegalArgumentException("illegal path : " + path);
+                }
+                String name = path.substring(i + 1, end);
+                if ("*".equals(name)) {
+                    segments.add(ANY);
+                } else if (name.length() >= 2 && (name.charAt(0) == '\'' || name.charAt(0) == '"')
+                           && name.charAt(name.length() - 1) == name.charAt(0)) {
+                    segments.add(name.substring(1, name.length() - 1));
+                } else {
+                    for (int j = 0; j < name.length(); ++j) {
+                        if (name.charAt(j) < '0' || name.charAt(j) > '9') {
+                            throw new IllegalArgumentException("illegal path : " + path);
+                        }
+                    }
+                    segments.add(name);
+                }
+                i = end + 1;
+            } else {
+                throw new IllegalArgumentException("illegal path : " + path);
+            }
+        }
+
+        return segments.toArray(new String[segments.size()]);
+    }
+
+    /**
+     * A step of the paths: the values below a node are read whole if it is included, otherwise only the members or
+     * items that have a child node are read.
+     */
+    static final class Node {
+
+        boolean           included;
+        Map<String, Node> children;
+        Node              any;
+
+        // the children named by array indexes, sorted by index
+        int[]             indexes;
+        Node[]            items;
+
+        Node getChild(String name) {
+            if (children != null) {
+                Node child = children.get(name);
+                if (child != null) {
+                    return child;
+                }
+            }
+            return any;
+        }
+
+        Node getChild(int index) {
+            if (indexes != null) {
+                int i = Arrays.binarySearch(indexes, index);
+                if (i >= 0) {
+                    return items[i];
+                }
+            }
+            return any;
+        }
+    }
+}
@@ -6,7 +6,10 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.lang.reflect.Type;
 import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.json.JsonArray;
 import javax.json.JsonConfiguration;
@@ -15,8 +18,112 @@ import javax.json.spi.JsonProvider;
 import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonParser;
 
+import com.alibaba.json.binding.BeanInfo;
+import com.alibaba.json.binding.BeanReader;
+import com.alibaba.json.binding.BeanWriter;
+
 public class JsonProviderImpl extends JsonProvider {
 
+    private final static Charset     UTF8                = Charset.forName("UTF-8");
+
+    /**
+     * The symbol table of providers created without one. {@link JsonProvider#provider()} creates a new provider for
+     * every reader, so this is what makes keys shared across them; it is therefore shared by the whole JVM. It clears
+     * itself when it keeps turning keys away, and {@link #getSymbolTable()} lets a caller clear it.
+     */
+    private final static SymbolTable defaultSymbolTable = new SymbolTable(1024);
+
+    /**
+     * Bean infos by type, shared by all providers: a class is introspected once.
+     */
+    private final static ConcurrentMap<Type, BeanInfo> beanInfos = new ConcurrentHashMap<Type, BeanInfo>();
+
+    /**
+     * Bean writers by class, generated once per class.
+     */
+    private final static ConcurrentMap<Class<?>, BeanWriter> beanWriters = new ConcurrentHashMap<Class<?>, BeanWriter>();
+
+    /**
+     * Bean readers by class, generated once per class.
+     */
+    private final static ConcurrentMap<Class<?>, BeanReader> beanReaders = new ConcurrentHashMap<Class<?>, BeanReader>();
+
+    /**
+     * The buffer recycler of providers created without one, shared for the same reason as the symbol table.
+     */
+    private final static BufferRecycler defaultBufferRecycler = new BufferRecycler();
+
+    private final SymbolTable        symbolTable;
+
+    private final BufferRecycler     bufferRecycler;
+
+    public JsonProviderImpl(){
+        this(defaultSymbolTable);
+    }
+
+    /**
+     * @param symbolTable table in which the object keys of all parsers of this provider are interned, or null to not
+     * intern keys
+     */
+    public JsonProviderImpl(SymbolTable symbolTable){
+        this(symbolTable, defaultBufferRecycler);
+    }
+
+    /**
+     * @param symbolTable table in which the object keys of all parsers of this provider are interned, or null to not
+     * intern keys
+     * @param bufferRecycler recycler of the buffers of the parsers and generators of this provider, or null to not
+     * recycle buffers
+     */
+    public JsonProviderImpl(SymbolTable symbolTable, BufferRecycler bufferRecycler){
+        this.symbolTable = symbolTable;
+        this.bufferRecycler = bufferRecycler;
+    }
+
+    public SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public BufferRecycler getBufferRecycler() {
+        return bufferRecycler;
+    }
+
+    public static BeanInfo getBeanInfo(Type type) {
+        BeanInfo beanInfo = beanInfos.get(type);
+        if (beanInfo == null) {
+            beanInfo = BeanInfo.create(type);
+            BeanInfo old = beanInfos.putIfAbsent(type, beanInfo);
+            if (old != null) {
+                beanInfo = old;
+            }
+        }
+        return beanInfo;
+    }
+
+    public static BeanWriter getBeanWriter(Class<?> clazz) {
+        BeanWriter beanWriter = beanWriters.get(clazz);
+        if (beanWriter == null) {
+            beanWriter = BeanWriter.create(getBeanInfo(clazz));
+            BeanWriter old = beanWriters.putIfAbsent(clazz, beanWriter);
+            if (old != null) {
+                beanWriter = old;
+            }
+        }
+        return beanWriter;
+    }
+
+    public static BeanReader getBeanReader(Class<?> clazz) {
+        BeanReader beanReader = beanReaders.get(clazz);
+        if (beanReader == null) {
+            beanReader = BeanReader.create(getBeanInfo(clazz));
+            BeanReader old = beanReaders.putIfAbsent(clazz, beanReader);
+            if (old != null) {
+                beanReader = old;
+            }
+        }
+        return beanReader;
+    }
+
     @Override
     public JsonParser createParser(Reader reader) {
 	return createParser(reader, new JsonConfiguration());
@@ -24,7 +131,17 @@ public class JsonProviderImpl extends JsonProvider {
 
     @Override
     public JsonParser createParser(Reader reader, JsonConfiguration config) {
-	return new JsonParserImpl(reader, config);
+	return new JsonParserImpl(reader, config, symbolTable, bufferRecycler);
+    }
+
+    @Override
+    public JsonParser createParser(String text) {
+        return createParser(text, new JsonConfiguration());
+    }
+
+    @Override
+    public JsonParser createParser(String text, JsonConfiguration config) {
+        return new JsonParserImpl(text, config, symbolTable, bufferRecycler);
     }
 
     @Override
@@ -34,7 +151,7 @@ public class JsonProviderImpl extends JsonProvider {
 
     @Override
     public JsonGenerator createGenerator(Writer writer, JsonConfiguration config) {
-	return new JsonGeneratorImpl(writer, config);
+	return new JsonGeneratorImpl(writer, config, bufferRecycler);
     }
 
     @Override
@@ -49,41 +166,47 @@ public class JsonProviderImpl extends JsonProvider {
 
     @Override
     public JsonGenerator createGenerator(OutputStream out) {
-        return createGenerator(new OutputStreamWriter(out));
+        return createGenerator(out, new JsonConfiguration());
     }
 
     @Override
     public JsonGenerator createGenerator(OutputStream out, JsonConfiguration config) {
-        return createGenerator(new OutputStreamWriter(out), config);
+        return new JsonUtf8Generator(out, config, bufferRecycler);
     }
 
     @Override
     public JsonGenerator createGenerator(OutputStream out, Charset charset) {
-        return createGenerator(new OutputStreamWriter(out, charset));
+        return createGenerator(out, charset, new JsonConfiguration());
     }
 
     @Override
     public JsonGenerator createGenerator(OutputStream out, Charset charset, JsonConfiguration config) {
+        if (UTF8.equals(charset)) {
+            return new JsonUtf8Generator(out, config, bufferRecycler);
+        }
         return createGenerator(new OutputStreamWriter(out, charset), config);
     }
 
     @Override
     public JsonParser createParser(InputStream in) {
-        return createParser(new InputStreamReader(in));
+        return createParser(in, new JsonConfiguration());
     }
 
     @Override
     public JsonParser createParser(InputStream in, Charset charset) {
-        return createParser(new InputStreamReader(in, charset));
+        return createParser(in, charset, new JsonConfiguration());
     }
 
     @Override
     public JsonParser createParser(InputStream in, JsonConfiguration config) {
-        return createParser(new InputStreamReader(in), config);
+        return new JsonParserImpl(in, config, symbolTable, bufferRecycler);
     }
 
     @Override
     public JsonParser createParser(InputStream in, Charset charset, JsonConfiguration config) {
+        if (UTF8.equals(charset)) {
+            return new JsonParserImpl(in, config, symbolTable, bufferRecycler);
+        }
         return createParser(new InputStreamReader(in, charset), config);
     }
 
@@ -1,36 +1,25 @@
 package com.alibaba.json;
 
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
 import javax.json.JsonArray;
-import javax.json.JsonException;
 import javax.json.JsonObject;
-import javax.json.JsonReader;
 
 
 public class JsonStructureImpl {
     public static JsonObject parseJsonObject(String jsonString) {
-        try {
-            JsonReader reader = new JsonReader(jsonString);
-            JsonObject jsonObject = reader.readJsonObject();
-            reader.close();
-            return jsonObject;
-        } catch (IOException e) {
-            throw new JsonException(e);
-        }
+        JsonParserImpl parser = new JsonParserImpl(jsonString);
+        JsonObject jsonObject = parser.parseJsonObject();
+        parser.close();
+        return jsonObject;
     }
 
     public static JsonArray parseJsonArray(String jsonString) {
-        try {
-            JsonReader reader = new JsonReader(jsonString);
-            JsonArray jsonArray = reader.readJsonArray();
-            reader.close();
-            return jsonArray;
-        } catch (IOException e) {
-            throw new JsonException(e);
-        }
+        JsonParserImpl parser = new JsonParserImpl(jsonString);
+        JsonArray jsonArray = parser.parseJsonArray();
+        parser.close();
+        return jsonArray;
     }
 
     static boolean toBooleanValue(Object value, boolean defaultValue) {
@@ -57,7 +46,7 @@ public class JsonStructureImpl {
             }
 
             if ("false".equals(value)) {
-                return true;
+                return false;
             }
 
             if ("1".equals(value)) {
@@ -65,7 +54,7 @@ public class JsonStructureImpl {
             }
 
             if ("0".equals(value)) {
-                return true;
+                return false;
             }
         }
 
@@ -1,29 +1,143 @@
 package com.alibaba.json;
 
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.io.SequenceInputStream;
 import java.math.BigDecimal;
 
+import javax.json.JsonConfiguration;
 import javax.json.JsonException;
 
 public class JsonTokenizer implements Closeable {
 
+    /**
+     * Configuration name of the initial read buffer size in chars, 1024 by default.
+     */
+    public final static String BUFFER_SIZE          = "bufferSize";
+
+    /**
+     * Configuration name of the adaptive read buffer switch, on by default. When on, the read buffer is doubled (up to
+     * {@link #MAX_BUFFER_SIZE}) after consecutive refills that each fill the whole buffer, which is what a large
+     * document on a file or socket stream looks like.
+     */
+    public final static String ADAPTIVE_BUFFER      = "adaptiveBuffer";
+
+    /**
+     * Configuration name of the upper bound of the adaptive read buffer in chars, 65536 by default.
+     */
+    public final static String MAX_BUFFER_SIZE      = "maxBufferSize";
+
+    /**
+     * Configuration name of the exact decimal switch, off by default. When on, decimal numbers are read as BigDecimal
+     * instead of double.
+     */
+    public final static String USE_BIG_DECIMAL      = "useBigDecimal";
+
+    final static int           DEFAULT_BUFFER_SIZE  = 1024;
+    final static int           DEFAULT_MAX_BUFFER_SIZE = 1024 * 64;
+    final static int           FULL_REFILLS_TO_GROW = 2;
+
     private Reader       reader;
 
-    private final char[] buf;
+    private InputStream  in;
+    private byte[]       bytes;
+    private int          bytesLen;
+    private int          bytesIndex;
+
+    private char[]       buf;
     private int          bufLen;
+    private boolean      adaptive;
+    private int          maxBufferSize;
+    private int          fullRefills;
     private int          index;
     private JsonToken    token;
     private char         ch;
 
     private String       stringValue;
     private long         longValue;
-    private BigDecimal   doubleValue;
+    private double       doubleValue;
+    private BigDecimal   decimalValue;
+    private boolean      bigNumber;
+    private boolean      integral;
+    private boolean      useBigDecimal;
+
+    // text of the current number token, valid until the next token
+    private char[]       numChars;
+    private int          numOffset;
+    private int          numLen;
+    private char[]       numBuf  = new char[32];
+
+    // chars of a string token that has escapes or crosses a refill
+    private char[]       textBuf;
+
+    // text of the current string token, in the buffer or the text buffer, its String being created when first asked
+    private char[]       textChars;
+    private int          textOffset;
+    private int          textLen;
+
+    private SymbolTable  symbolTable;
+
+    // recycler the buffers are taken from and given back to on close, or null
+    private BufferRecycler recycler;
     
+    /**
+     * Creates a JSON reader over a string. The text is copied once into a char array, which is then read in place as
+     * by {@link #JsonTokenizer(char[], int, int, JsonConfiguration, SymbolTable)}; callers that hold the chars already
+     * save the copy by passing the array.
+     */
     public JsonTokenizer(String text) {
-        this (new StringReader(text));
+        this (text.toCharArray());
+    }
+
+    public JsonTokenizer(String text, JsonConfiguration config) {
+        this (text.toCharArray(), 0, text.length(), config, null);
+    }
+
+    public JsonTokenizer(String text, JsonConfiguration config, SymbolTable symbolTable) {
+        this (text.toCharArray(), 0, text.length(), config, symbolTable);
+    }
+
+    public JsonTokenizer(char[] chars) {
+        this (chars, 0, chars.length);
+    }
+
+    public JsonTokenizer(char[] chars, int offset, int length){
+        this (chars, offset, length, JsonConfiguration.defaultConfig, null);
+    }
+
+    /**
+     * Creates a JSON reader over a character array. The whole text is the buffer, so there is no refill and string and
+     * number tokens are sliced directly out of the array.
+     * 
+     * @param chars the JSON text, which must not be modified while it is being read
+     * @param offset the index of the first char of the JSON text
+     * @param length the number of chars of the JSON text
+     * @param config configuration of the reader
+     * @param symbolTable table in which object keys are interned, or null
+     */
+    public JsonTokenizer(char[] chars, int offset, int length, JsonConfiguration config, SymbolTable symbolTable){
+        this(chars, offset, length, config, symbolTable, null);
+    }
+
+    /**
+     * @param recycler recycler of the buffer strings with escapes are unescaped in, or null
+     */
+    public JsonTokenizer(char[] chars, int offset, int length, JsonConfiguration config, SymbolTable symbolTable,
+                         BufferRecycler recycler){
+        this.symbolTable = symbolTable;
+        this.recycler = recycler;
+        this.textBuf = allocTextBuffer();
+        this.useBigDecimal = JsonStructureImpl.toBooleanValue(config.get(USE_BIG_DECIMAL), false);
+        this.buf = chars;
+        this.index = offset;
+        this.bufLen = offset + length;
+
+        nextChar();
+        nextToken();
     }
 
     /**
@@ -33,10 +147,82 @@ public class JsonTokenizer implements Closeable {
      * @return a JSON reader
      */
     public JsonTokenizer(Reader reader){
+        this(reader, JsonConfiguration.defaultConfig, null);
+    }
+
+    public JsonTokenizer(Reader reader, JsonConfiguration config){
+        this(reader, config, null);
+    }
+
+    /**
+     * Creates a JSON reader from a character stream, with the read buffer set up by the configuration
+     * 
+     * @param reader a reader from which JSON is to be read
+     * @param config configuration of the reader, see {@link #BUFFER_SIZE} and {@link #ADAPTIVE_BUFFER}
+     * @param symbolTable table in which object keys are interned, or null
+     */
+    public JsonTokenizer(Reader reader, JsonConfiguration config, SymbolTable symbolTable){
+        this(reader, config, symbolTable, null);
+    }
+
+    /**
+     * @param recycler recycler of the read buffer, or null
+     */
+    public JsonTokenizer(Reader reader, JsonConfiguration config, SymbolTable symbolTable, BufferRecycler recycler){
         this.reader = reader;
-        buf = new char[256];
-        this.index = buf.length;
-        this.bufLen = buf.length;
+        this.symbolTable = symbolTable;
+        this.recycler = recycler;
+        this.textBuf = allocTextBuffer();
+        this.useBigDecimal = JsonStructureImpl.toBooleanValue(config.get(USE_BIG_DECIMAL), false);
+        initBuffer(config);
+
+        nextChar();
+        nextToken();
+    }
+
+    /**
+     * Creates a JSON reader from a UTF-8 byte stream. The bytes are decoded straight into the character buffer, so no
+     * {@link java.nio.charset.CharsetDecoder} is involved. A stream that starts like UTF-16 or UTF-32 (as per the <a
+     * href="http://tools.ietf.org/rfc/rfc4627.txt">RFC</a>) falls back to an {@link InputStreamReader}.
+     * 
+     * @param in a byte stream from which JSON is to be read
+     */
+    public JsonTokenizer(InputStream in){
+        this(in, JsonConfiguration.defaultConfig, null);
+    }
+
+    public JsonTokenizer(InputStream in, JsonConfiguration config){
+        this(in, config, null);
+    }
+
+    /**
+     * Creates a JSON reader from a UTF-8 byte stream, with the read buffer set up by the configuration
+     * 
+     * @param in a byte stream from which JSON is to be read
+     * @param config configuration of the reader, see {@link #BUFFER_SIZE} and {@link #ADAPTIVE_BUFFER}
+     * @param symbolTable table in which object keys are interned, or null
+     */
+    public JsonTokenizer(InputStream in, JsonConfiguration config, SymbolTable symbolTable){
+        this(in, config, symbolTable, null);
+    }
+
+    /**
+     * @param recycler recycler of the read buffers, or null
+     */
+    public JsonTokenizer(InputStream in, JsonConfiguration config, SymbolTable symbolTable, BufferRecycler recycler){
+        this.in = in;
+        this.symbolTable = symbolTable;
+        this.recycler = recycler;
+        this.textBuf = allocTextBuffer();
+        this.useBigDecimal = JsonStructureImpl.toBooleanValue(config.get(USE_BIG_DECIMAL), false);
+        initBuffer(config);
+        if (recycler != null) {
+            this.bytes = recycler.allocBytes(BufferRecycler.READ_BUFFER, buf.length, adaptive ? maxBufferSize : buf.length);
+        } else {
+            this.bytes = new byte[buf.length];
+        }
+
+        detectEncoding();
 
         nextChar();
         nextToken();
@@ -59,14 +245,78 @@ public class JsonTokenizer implements Closeable {
         return this.longValue;
     }
 
-    public BigDecimal doubleValue() {
+    /**
+     * Returns the value of a {@link JsonToken#DOUBLE} token as a double, or the value of an INT token converted to
+     * double.
+     */
+    public double doubleValue() {
+        if (token == JsonToken.INT) {
+            return (double) longValue;
+        }
         return this.doubleValue;
     }
 
+    /**
+     * Returns the exact value of the current number token. The BigDecimal is only created here, from the text of the
+     * token, so a caller that reads numbers as doubles never pays for it.
+     */
+    public BigDecimal decimalValue() {
+        if (token == JsonToken.INT) {
+            return BigDecimal.valueOf(longValue);
+        }
+        if (decimalValue == null) {
+            decimalValue = new BigDecimal(numChars, numOffset, numLen);
+        }
+        return decimalValue;
+    }
+
+    /**
+     * Whether the current {@link JsonToken#DOUBLE} token should be read as {@link #decimalValue()}: either exact
+     * decimals were asked for through {@link #USE_BIG_DECIMAL}, or it is an integer that doesn't fit in a long.
+     */
+    public boolean isBigNumber() {
+        return bigNumber;
+    }
+
+    /**
+     * Whether the current number token has no fraction and no exponent: an INT token, or a {@link JsonToken#DOUBLE}
+     * token holding an integer that doesn't fit in a long.
+     */
+    public boolean isIntegral() {
+        return token == JsonToken.INT || integral;
+    }
+
     public String stringValue() {
+        if (stringValue == null && textChars != null) {
+            stringValue = new String(textChars, textOffset, textLen);
+        }
         return this.stringValue;
     }
 
+    /**
+     * Returns the chars holding the text of the current string or number token, from {@link #textOffset()} for
+     * {@link #textLength()} chars, with no String created. They are only valid until the next token, and must not be
+     * modified.
+     */
+    public char[] textChars() {
+        return token == JsonToken.INT || token == JsonToken.DOUBLE ? numChars : textChars;
+    }
+
+    public int textOffset() {
+        return token == JsonToken.INT || token == JsonToken.DOUBLE ? numOffset : textOffset;
+    }
+
+    public int textLength() {
+        return token == JsonToken.INT || token == JsonToken.DOUBLE ? numLen : textLen;
+    }
+
+    private void setText(char[] chars, int offset, int len) {
+        stringValue = null;
+        textChars = chars;
+        textOffset = offset;
+        textLen = len;
+    }
+
     /**
      * Closes this reader and frees any resources associated with the reader. This doesn't close the underlying input
      * source.
@@ -74,10 +324,119 @@ public class JsonTokenizer implements Closeable {
     @Override
     public void close() {
         try {
-            reader.close();
+            if (in != null) {
+                in.close();
+            } else if (reader != null) {
+                reader.close();
+            }
         } catch (IOException e) {
             throw new JsonException();
         }
+
+        if (recycler != null) {
+            if (token == JsonToken.STRING) {
+                stringValue(); // its chars are given back
+            }
+            textChars = null;
+            if (!isInMemory()) {
+                recycler.releaseChars(BufferRecycler.READ_BUFFER, buf);
+                if (bytes != null) {
+                    recycler.releaseBytes(BufferRecycler.READ_BUFFER, bytes);
+                }
+                buf = null;
+                bytes = null;
+            }
+            if (textBuf.length <= DEFAULT_MAX_BUFFER_SIZE) {
+                recycler.releaseChars(BufferRecycler.TEXT_BUFFER, textBuf);
+            }
+            textBuf = null;
+            recycler = null;
+        }
+    }
+
+    private char[] allocTextBuffer() {
+        if (recycler != null) {
+            return recycler.allocChars(BufferRecycler.TEXT_BUFFER, 64, DEFAULT_MAX_BUFFER_SIZE);
+        }
+        return new char[64];
+    }
+
+    char[] getBuffer() {
+        return buf;
+    }
+
+    SymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    /**
+     * Returns the offset in the buffer of the opening char of the current {@link JsonToken#LBRACE} or
+     * {@link JsonToken#LBRACKET} token, for a text read in place.
+     */
+    int tokenOffset() {
+        return index == -1 ? bufLen - 1 : index - 2;
+    }
+
+    /**
+     * Skips the object or array opened by the current {@link JsonToken#LBRACE} or {@link JsonToken#LBRACKET} token,
+     * and moves to the token after it.
+     * 
+     * @return the offset in the buffer after the closing char, for a text read in place
+     */
+    int skipStructure() {
+        if (token != JsonToken.LBRACE && token != JsonToken.LBRACKET) {
+            throw new IllegalArgumentException("illegal token : " + token + ", expect " + JsonToken.LBRACE);
+        }
+        return skip(1);
+    }
+
+    /**
+     * Skips the chars from the current one up to the close of the <code>depth</code> innermost enclosing objects or
+     * arrays, and moves to the token after it. The chars are only scanned for quotes and brackets, with an escape
+     * flag inside strings, so nothing is tokenized or created, and the syntax of the skipped text is not checked.
+     * 
+     * @return the offset in the buffer after the last closing char, which is only meaningful for a text read in place
+     */
+    int skip(int depth) {
+        if (index == -1) {
+            throw new JsonException("unclosed structure");
+        }
+
+        boolean inString = false;
+        boolean escaped = false;
+        int i = index - 1;
+        for (;;) {
+            final char[] buf = this.buf;
+            final int bufLen = this.bufLen;
+            for (; i < bufLen; ++i) {
+                char c = buf[i];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    ++depth;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    index = i + 1;
+                    nextChar();
+                    nextToken();
+                    return i + 1;
+                }
+            }
+
+            index = bufLen;
+            nextChar();
+            if (index == -1) {
+                throw new JsonException("unclosed structure");
+            }
+            i = index - 1;
+        }
     }
 
     public final void nextToken() {
@@ -200,94 +559,308 @@ public class JsonTokenizer implements Closeable {
     public final static int VALUE          = 3;
     public final static int END            = 4;
 
+    /**
+     * Compiles field names for the <code>matchField</code> methods: each one becomes the chars <code>"name":</code>
+     * exactly as they appear in compact JSON, so that a name is matched with a single comparison of chars.
+     */
+    public static char[][] compileFieldNames(String... names) {
+        char[][] table = new char[names.length][];
+        for (int i = 0; i < names.length; ++i) {
+            String name = names[i];
+            char[] chars = new char[name.length() + 3];
+            chars[0] = '"';
+            name.getChars(0, name.length(), chars, 1);
+            chars[chars.length - 2] = '"';
+            chars[chars.length - 1] = ':';
+            table[i] = chars;
+        }
+        return table;
+    }
+
     public int matchFieldInt(String fieldName) {
-        matchState = UNKOWN;
-        
-        if (ch != '"') {
-            matchState = NOT_MATCH_NAME;
+        return matchFieldInt(compileFieldNames(fieldName)[0]);
+    }
+
+    /*
+     * The matchField methods read a member of an object in one go when the current token is the LBRACE or COMMA before
+     * it: the field name, compiled by compileFieldNames, and a value of the expected type. On a match the state is
+     * VALUE and the current token the COMMA after the value, or END and the current token the RBRACE closing the
+     * object, as if the member had been tokenized. Otherwise the state is NOT_MATCH_NAME, or NOT_MATCH if the name
+     * matched but the value is not of the type, and nothing is consumed, so the caller goes on with nextToken(). A member
+     * that is not in the buffer in full is not matched either.
+     */
+
+    public int matchFieldInt(char[] fieldName) {
+        int i = matchName(fieldName);
+        if (i == -1) {
             return 0;
         }
-        nextChar();
-        
-        for (int i = 0; i < fieldName.length(); ++i) {
-            if (fieldName.charAt(i) != ch) {
-                matchState = NOT_MATCH_NAME;
-                return 0;
-            }
-            nextChar();
+
+        JsonToken token = this.token;
+        if (matchNumber(i) && this.token == JsonToken.INT && longValue >= Integer.MIN_VALUE
+            && longValue <= Integer.MAX_VALUE && matchEnd(matchIndex)) {
+            return (int) longValue;
         }
-        
-        if (ch != '"') {
-            matchState = NOT_MATCH_NAME;
+
+        notMatch(token);
+        return 0;
+    }
+
+    public long matchFieldLong(char[] fieldName) {
+        int i = matchName(fieldName);
+        if (i == -1) {
             return 0;
         }
-        nextChar();
-        
-        if (ch != ':') {
-            matchState = NOT_MATCH_NAME;
+
+        JsonToken token = this.token;
+        if (matchNumber(i) && this.token == JsonToken.INT && matchEnd(matchIndex)) {
+            return longValue;
+        }
+
+        notMatch(token);
+        return 0;
+    }
+
+    public double matchFieldDouble(char[] fieldName) {
+        int i = matchName(fieldName);
+        if (i == -1) {
             return 0;
         }
-        nextChar();
-        
-        boolean nagative = false;
-        if (ch == '-') {
-            nagative = true;
-            nextChar();
+
+        JsonToken token = this.token;
+        if (matchNumber(i)) {
+            double value = this.token == JsonToken.INT ? (double) longValue : doubleValue;
+            if (matchEnd(matchIndex)) {
+                return value;
+            }
         }
-        
-        int value = 0;
-        if (ch >= '0' && ch <= '9') {
-            value = ch - '0';
-            nextChar();
-            for (;;) {
-                if (ch >= '0' && ch <= '9') {
-                    value = value * 10 + ((int) ch - '0');
-                } else if (ch == '.') {
-                    matchState = NOT_MATCH;
-                    return 0;
-                } else {
+
+        notMatch(token);
+        return 0;
+    }
+
+    public boolean matchFieldBoolean(char[] fieldName) {
+        int i = matchName(fieldName);
+        if (i == -1) {
+            return false;
+        }
+
+        if (matchLiteral(i, TRUE_CHARS) && matchEnd(i + TRUE_CHARS.length)) {
+            return true;
+        }
+        if (matchLiteral(i, FALSE_CHARS) && matchEnd(i + FALSE_CHARS.length)) {
+            return false;
+        }
+
+        matchState = NOT_MATCH;
+        return false;
+    }
+
+    /**
+     * Matches a string without escapes, or null.
+     */
+    public String matchFieldString(char[] fieldName) {
+        int i = matchName(fieldName);
+        if (i == -1) {
+            return null;
+        }
+
+        if (buf[i] == '"') {
+            for (int j = i + 1; j < bufLen; ++j) {
+                char c = buf[j];
+                if (c == '"') {
+                    // created first, matching the end may refill the buffer
+                    String value = new String(buf, i + 1, j - i - 1);
+                    if (matchEnd(j + 1)) {
+                        return value;
+                    }
+                    break;
+                }
+                if (c == '\\') {
                     break;
                 }
-                nextChar();
             }
-            if (value < 0) { // overflow
-                matchState = NOT_MATCH;
-                return 0;
+        } else if (matchLiteral(i, NULL_CHARS) && matchEnd(i + NULL_CHARS.length)) {
+            return null;
+        }
+
+        matchState = NOT_MATCH;
+        return null;
+    }
+
+    /**
+     * Matches a date: a string without escapes parsed where it is in the buffer, or a number of epoch millis. Null
+     * doesn't match.
+     *
+     * @param pattern the pattern of the string, or null for {@link DatePattern#parseDefault(char[], int, int)}
+     * @return the epoch millis
+     * @throws IllegalArgumentException if the string is not a date of the pattern
+     */
+    public long matchFieldDate(char[] fieldName, DatePattern pattern) {
+        int i = matchName(fieldName);
+        if (i == -1) {
+            return 0;
+        }
+
+        if (buf[i] == '"') {
+            for (int j = i + 1; j < bufLen; ++j) {
+                char c = buf[j];
+                if (c == '"') {
+                    // parsed first, matching the end may refill the buffer
+                    long millis = pattern == null ? DatePattern.parseDefault(buf, i + 1, j - i - 1) : pattern.parse(buf, i + 1, j - i - 1);
+                    if (matchEnd(j + 1)) {
+                        return millis;
+                    }
+                    break;
+                }
+                if (c == '\\') {
+                    break;
+                }
             }
-        } else {
             matchState = NOT_MATCH;
             return 0;
         }
-        if (nagative) {
-            value = -value;
+
+        JsonToken token = this.token;
+        if (matchNumber(i) && this.token == JsonToken.INT && matchEnd(matchIndex)) {
+            return longValue;
         }
-        
-        if (ch == ',') {
-            nextChar();
-            matchState = VALUE;
-            token = JsonToken.COMMA;
-            return value;
+
+        notMatch(token);
+        return 0;
+    }
+
+    /**
+     * Matches a member whose value is an object. On a match the state is OBJECT and the current token the LBRACE
+     * opening the value, so that its own members can be matched next.
+     */
+    public boolean matchFieldObjectStart(char[] fieldName) {
+        int i = matchName(fieldName);
+        if (i == -1) {
+            return false;
         }
 
-        if (ch == '}') {
-            nextChar();
-            if (ch == ',') {
-                token = JsonToken.COMMA;
-                nextChar();
-            } else if (ch == ']') {
-                token = JsonToken.RBRACKET;
-                nextChar();
-            } else if (ch == '}') {
-                token = JsonToken.RBRACE;
-                nextChar();
-            } else {
-                matchState = NOT_MATCH;
-                return 0;
+        if (buf[i] != '{') {
+            matchState = NOT_MATCH;
+            return false;
+        }
+
+        token = JsonToken.LBRACE;
+        matchState = OBJECT;
+        index = i + 1;
+        nextChar();
+        return true;
+    }
+
+    private final static char[] TRUE_CHARS  = "true".toCharArray();
+    private final static char[] FALSE_CHARS = "false".toCharArray();
+    private final static char[] NULL_CHARS  = "null".toCharArray();
+
+    // end of the value matched by matchNumber
+    private int                 matchIndex;
+
+    /**
+     * Matches the field name and the whitespace around it.
+     * 
+     * @return the offset of the value in the buffer, or -1
+     */
+    private int matchName(char[] fieldName) {
+        matchState = NOT_MATCH_NAME;
+        if (index == -1 || (token != JsonToken.LBRACE && token != JsonToken.COMMA)) {
+            return -1;
+        }
+
+        final char[] buf = this.buf;
+        final int bufLen = this.bufLen;
+
+        int i = skipWhitespace(index - 1);
+        if (bufLen - i < fieldName.length) {
+            return -1;
+        }
+        for (int j = 0; j < fieldName.length; ++j) {
+            if (buf[i + j] != fieldName[j]) {
+                return -1;
             }
+        }
+
+        i = skipWhitespace(i + fieldName.length);
+        if (i == bufLen) {
+            return -1;
+        }
+
+        matchState = UNKOWN;
+        return i;
+    }
+
+    private boolean matchNumber(int i) {
+        char c = buf[i];
+        if (c != '-' && (c < '0' || c > '9')) {
+            return false;
+        }
+
+        boolean inMemory = isInMemory();
+        int end = scanNumber(buf, i, bufLen, inMemory);
+        if (end == bufLen && !inMemory) {
+            return false;
+        }
+
+        matchIndex = end;
+        return true;
+    }
+
+    private boolean matchLiteral(int i, char[] literal) {
+        if (bufLen - i < literal.length) {
+            return false;
+        }
+        for (int j = 0; j < literal.length; ++j) {
+            if (buf[i + j] != literal[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Matches the COMMA or RBRACE after a value ending at <code>i</code>, and makes it the current token.
+     */
+    private boolean matchEnd(int i) {
+        i = skipWhitespace(i);
+        if (i == bufLen) {
+            return false;
+        }
+
+        char c = buf[i];
+        if (c == ',') {
+            token = JsonToken.COMMA;
+            matchState = VALUE;
+        } else if (c == '}') {
+            token = JsonToken.RBRACE;
             matchState = END;
+        } else {
+            return false;
         }
 
-        return value;
+        index = i + 1;
+        nextChar();
+        return true;
+    }
+
+    private void notMatch(JsonToken token) {
+        this.token = token; // set by matchNumber
+        matchState = NOT_MATCH;
+    }
+
+    private int skipWhitespace(int i) {
+        final char[] buf = this.buf;
+        final int bufLen = this.bufLen;
+        while (i < bufLen) {
+            char c = buf[i];
+            if (c != ' ' && c != '\r' && c != '\n' && c != '\t') {
+                break;
+            }
+            ++i;
+        }
+        return i;
     }
     
     public int getMatchState() {
@@ -298,10 +871,69 @@ public class JsonTokenizer implements Closeable {
         return ch >= '0' && ch <= '9';
     }
 
+    private void initBuffer(JsonConfiguration config) {
+        int bufferSize = JsonStructureImpl.toIntValue(config.get(BUFFER_SIZE), DEFAULT_BUFFER_SIZE);
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("illegal bufferSize : " + bufferSize);
+        }
+
+        this.adaptive = JsonStructureImpl.toBooleanValue(config.get(ADAPTIVE_BUFFER), true);
+        this.maxBufferSize = JsonStructureImpl.toIntValue(config.get(MAX_BUFFER_SIZE), DEFAULT_MAX_BUFFER_SIZE);
+
+        if (recycler != null) {
+            this.buf = recycler.allocChars(BufferRecycler.READ_BUFFER, bufferSize, adaptive ? maxBufferSize : bufferSize);
+        } else {
+            this.buf = new char[bufferSize];
+        }
+        this.index = 0;
+        this.bufLen = 0;
+    }
+
+    /**
+     * Called once the buffer is drained, before it is refilled. A buffer that keeps being filled completely means the
+     * source has more data ready than the buffer holds, so it is doubled to halve the number of reads.
+     */
+    private void adaptBuffer() {
+        if (bufLen != buf.length) {
+            fullRefills = 0;
+            return;
+        }
+
+        if (++fullRefills < FULL_REFILLS_TO_GROW || buf.length >= maxBufferSize) {
+            return;
+        }
+
+        fullRefills = 0;
+        int newSize = Math.min(buf.length * 2, maxBufferSize);
+        buf = new char[newSize];
+
+        if (bytes != null && bytes.length < newSize) {
+            byte[] newBytes = new byte[newSize];
+            System.arraycopy(bytes, bytesIndex, newBytes, 0, bytesLen - bytesIndex);
+            bytesLen -= bytesIndex;
+            bytesIndex = 0;
+            bytes = newBytes;
+        }
+    }
+
+    boolean isInMemory() {
+        return reader == null && in == null;
+    }
+
     private void nextChar() {
         if (index == bufLen) {
+            if (adaptive && bufLen != -1) {
+                adaptBuffer();
+            }
+
             try {
-                bufLen = reader.read(buf);
+                if (in != null) {
+                    bufLen = readUTF8();
+                } else if (reader != null) {
+                    bufLen = reader.read(buf);
+                } else {
+                    bufLen = -1;
+                }
             } catch (IOException e) {
                 throw new JsonException(e);
             }
@@ -317,105 +949,544 @@ public class JsonTokenizer implements Closeable {
         ch = buf[index++];
     }
 
-    private void scanDigit() {
-        int dotCount = 0;
-        StringBuilder digitBuf = new StringBuilder();
+    private void detectEncoding() {
+        try {
+            while (bytesLen < 4) {
+                int len = in.read(bytes, bytesLen, bytes.length - bytesLen);
+                if (len == -1) {
+                    break;
+                }
+                bytesLen += len;
+            }
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
 
-        if (ch == '-' || ch == '+') {
-            digitBuf.append(ch);
-            nextChar();
+        String charset = null;
+        if (bytesLen >= 4) {
+            if (bytes[0] == 0 && bytes[1] == 0 && bytes[2] == 0) {
+                charset = "UTF-32BE";
+            } else if (bytes[1] == 0 && bytes[2] == 0 && bytes[3] == 0) {
+                charset = "UTF-32LE";
+            }
+        }
+        if (charset == null && bytesLen >= 2) {
+            if ((bytes[0] == (byte) 0xFE && bytes[1] == (byte) 0xFF) || (bytes[0] == (byte) 0xFF && bytes[1] == (byte) 0xFE)) {
+                charset = "UTF-16";
+            } else if (bytes[0] == 0) {
+                charset = "UTF-16BE";
+            } else if (bytes[1] == 0) {
+                charset = "UTF-16LE";
+            }
+        }
+
+        if (charset != null) {
+            InputStream head = new ByteArrayInputStream(bytes, 0, bytesLen);
+            try {
+                this.reader = new InputStreamReader(new SequenceInputStream(head, in), charset);
+            } catch (IOException e) {
+                throw new JsonException(e);
+            }
+            this.in = null;
+            this.bytes = null;
+            return;
+        }
+
+        // skip the UTF-8 byte order mark
+        if (bytesLen >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+            bytesIndex = 3;
         }
+    }
+
+    /**
+     * Decodes the buffered bytes into <code>buf</code>. The stream is only read when nothing could be decoded, so a
+     * socket stream never blocks for more input than the tokenizer needs.
+     * 
+     * @return the number of chars decoded, or -1 at end of stream
+     */
+    private int readUTF8() throws IOException {
+        final byte[] bytes = this.bytes;
+        final char[] buf = this.buf;
+        final int bufSize = buf.length;
 
         for (;;) {
-            digitBuf.append(ch);
-            nextChar();
+            int len = 0;
+            int i = bytesIndex;
+            final int end = bytesLen;
 
-            if (ch == '.') {
-                dotCount++;
-                digitBuf.append('.');
-                nextChar();
-                continue;
+            while (i < end && len < bufSize) {
+                int b = bytes[i];
+                if (b >= 0) {
+                    buf[len++] = (char) b;
+                    i++;
+                    continue;
+                }
+
+                int n = utf8Length(b);
+                if (i + n > end) {
+                    break; // incomplete sequence
+                }
+
+                if (n == 2) {
+                    int b1 = bytes[i + 1];
+                    if ((b1 & 0xC0) != 0x80) {
+                        buf[len++] = '\uFFFD';
+                        i++;
+                        continue;
+                    }
+                    buf[len++] = (char) (((b & 0x1F) << 6) | (b1 & 0x3F));
+                    i += 2;
+                } else if (n == 3) {
+                    int b1 = bytes[i + 1];
+                    int b2 = bytes[i + 2];
+                    if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80) {
+                        buf[len++] = '\uFFFD';
+                        i++;
+                        continue;
+                    }
+                    buf[len++] = (char) (((b & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F));
+                    i += 3;
+                } else if (n == 4) {
+                    if (len + 1 == bufSize) {
+                        break; // no room for the surrogate pair
+                    }
+                    int b1 = bytes[i + 1];
+                    int b2 = bytes[i + 2];
+                    int b3 = bytes[i + 3];
+                    if ((b1 & 0xC0) != 0x80 || (b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+                        buf[len++] = '\uFFFD';
+                        i++;
+                        continue;
+                    }
+                    int codePoint = ((b & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+                    buf[len++] = (char) ((codePoint >>> 10) + (Character.MIN_HIGH_SURROGATE - (0x10000 >>> 10)));
+                    buf[len++] = (char) ((codePoint & 0x3FF) + Character.MIN_LOW_SURROGATE);
+                    i += 4;
+                } else {
+                    buf[len++] = '\uFFFD';
+                    i++;
+                }
             }
 
-            if (!isDigit(ch)) {
-                break;
+            bytesIndex = i;
+            if (len > 0) {
+                return len;
             }
+
+            int rest = end - i;
+            System.arraycopy(bytes, i, bytes, 0, rest);
+            bytesIndex = 0;
+            bytesLen = rest;
+
+            int readLen = in.read(bytes, rest, bytes.length - rest);
+            if (readLen == -1) {
+                if (rest == 0) {
+                    return -1;
+                }
+                // truncated sequence at the end of the stream
+                bytesLen = 0;
+                buf[0] = '\uFFFD';
+                return 1;
+            }
+            bytesLen += readLen;
+        }
+    }
+
+    private static int utf8Length(int b) {
+        if ((b & 0xE0) == 0xC0) {
+            return 2;
+        }
+        if ((b & 0xF0) == 0xE0) {
+            return 3;
+        }
+        if ((b & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return 1;
+    }
+
+    /**
+     * Scans a number that is entirely contained in the buffer without copying it.
+     * 
+     * @return false if the number may continue past the end of the buffer
+     */
+    private boolean scanDigitInBuffer() {
+        boolean inMemory = isInMemory();
+        int end = scanNumber(buf, index - 1, bufLen, inMemory);
+        if (end == bufLen && !inMemory) {
+            return false;
         }
 
-        if (ch == 'E' || ch == 'e') {
-            digitBuf.append(ch);
+        index = end;
+        nextChar();
+        return true;
+    }
+
+    private void scanDigit() {
+        if (scanDigitInBuffer()) {
+            return;
+        }
+
+        // the number crosses a refill, collect it first
+        int len = 0;
+        do {
+            if (len == numBuf.length) {
+                char[] newBuf = new char[numBuf.length * 2];
+                System.arraycopy(numBuf, 0, newBuf, 0, len);
+                numBuf = newBuf;
+            }
+            numBuf[len++] = ch;
             nextChar();
-            if (ch == '+' || ch == '-') {
-                digitBuf.append(ch);
-                nextChar();
+        } while (index != -1 && isNumberChar(ch));
+
+        if (scanNumber(numBuf, 0, len, true) != len) {
+            throw new JsonException("illegal number : " + new String(numBuf, 0, len));
+        }
+    }
+
+    static boolean isNumberChar(char ch) {
+        return (ch >= '0' && ch <= '9') || ch == '.' || ch == '-' || ch == '+' || ch == 'e' || ch == 'E';
+    }
+
+    /**
+     * Parses the number starting at <code>start</code> without allocating. Integers are accumulated into a long the
+     * way {@link Long#parseLong(String)} does, and an integer that overflows becomes a {@link JsonToken#DOUBLE} read as
+     * BigDecimal. A decimal whose significand fits in 53 bits and whose exponent is within 22 is converted with one
+     * exact double multiplication or division (Clinger's fast path), which is correctly rounded; anything else goes to
+     * {@link Double#parseDouble(String)}.
+     * 
+     * @param complete whether <code>end</code> is the end of the input; if not, a number that is still incomplete at
+     * <code>end</code> is not an error
+     * @return the index of the first char after the number
+     */
+    private int scanNumber(final char[] chars, final int start, final int end, boolean complete) {
+        int i = start;
+        char c = chars[i];
+
+        boolean negative = false;
+        if (c == '-') {
+            negative = true;
+            i++;
+        } else if (c == '+') {
+            i++;
+        }
+
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multmin = limit / 10;
+
+        // integral value, accumulated negatively to cover Long.MIN_VALUE
+        long value = 0;
+        boolean overflow = false;
+        int digits = 0;
+
+        // significand of the decimal value, at most 18 significant digits
+        long significand = 0;
+        int significantDigits = 0;
+        int exp10 = 0;
+        boolean truncated = false;
+
+        for (; i < end; ++i) {
+            c = chars[i];
+            if (c < '0' || c > '9') {
+                break;
             }
+            int d = c - '0';
+            if (!overflow) {
+                if (value < multmin) {
+                    overflow = true;
+                } else {
+                    value *= 10;
+                    if (value < limit + d) {
+                        overflow = true;
+                    } else {
+                        value -= d;
+                    }
+                }
+            }
+            if (significantDigits < 18) {
+                significand = significand * 10 + d;
+                if (significand != 0) {
+                    significantDigits++;
+                }
+            } else {
+                exp10++;
+                truncated |= d != 0;
+            }
+            digits++;
+        }
 
-            while (isDigit(ch)) {
-                digitBuf.append(ch);
-                nextChar();
+        boolean decimal = false;
+        if (i < end && chars[i] == '.') {
+            decimal = true;
+            for (++i; i < end; ++i) {
+                c = chars[i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                int d = c - '0';
+                if (significantDigits < 18) {
+                    significand = significand * 10 + d;
+                    exp10--;
+                    if (significand != 0) {
+                        significantDigits++;
+                    }
+                } else {
+                    truncated |= d != 0;
+                }
+                digits++;
+            }
+        }
+
+        if (digits == 0) {
+            if (i == end && !complete) {
+                return end;
             }
+            throw new JsonException("illegal number : " + new String(chars, start, i - start));
         }
 
-        if (dotCount == 0) {
-            this.longValue = Long.parseLong(digitBuf.toString());
+        if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+            decimal = true;
+            i++;
+            boolean negativeExp = false;
+            if (i < end && (chars[i] == '+' || chars[i] == '-')) {
+                negativeExp = chars[i] == '-';
+                i++;
+            }
+            int exp = 0;
+            int expStart = i;
+            for (; i < end; ++i) {
+                c = chars[i];
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (exp < 100000) {
+                    exp = exp * 10 + (c - '0');
+                }
+            }
+            if (i == expStart) {
+                if (i == end && !complete) {
+                    return end;
+                }
+                throw new JsonException("illegal number : " + new String(chars, start, i - start));
+            }
+            exp10 += negativeExp ? -exp : exp;
+        }
+
+        this.numChars = chars;
+        this.numOffset = start;
+        this.numLen = i - start;
+        this.decimalValue = null;
+
+        if (!decimal && !overflow) {
+            this.longValue = negative ? value : -value;
+            this.bigNumber = false;
             token = JsonToken.INT;
+            return i;
+        }
+
+        token = JsonToken.DOUBLE;
+        this.bigNumber = useBigDecimal || !decimal;
+        this.integral = !decimal;
+
+        if (significand == 0 && !truncated) {
+            this.doubleValue = negative ? -0.0d : 0.0d;
+        } else if (!truncated && significand <= MAX_EXACT_SIGNIFICAND && exp10 >= -22 && exp10 <= 22) {
+            double d = (double) significand;
+            d = exp10 < 0 ? d / POW10[-exp10] : d * POW10[exp10];
+            this.doubleValue = negative ? -d : d;
         } else {
-            this.doubleValue = new BigDecimal(digitBuf.toString());
-            token = JsonToken.DOUBLE;
+            this.doubleValue = Double.parseDouble(new String(chars, start, i - start));
+        }
+
+        return i;
+    }
+
+    private final static long     MAX_EXACT_SIGNIFICAND = 1L << 53;
+
+    private final static double[] POW10                 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /**
+     * Scans a string without escapes that is entirely contained in the buffer, creating the value from a single range
+     * of the buffer.
+     * 
+     * @return false if an escape or the end of the buffer is hit before the closing quote
+     */
+    private boolean scanStringInBuffer() {
+        final char[] buf = this.buf;
+        final int bufLen = this.bufLen;
+        final int start = index;
+
+        for (int i = start; i < bufLen; ++i) {
+            char c = buf[i];
+            if (c == '"') {
+                if (i + 1 == bufLen && !isInMemory()) {
+                    return false; // the text has to outlive the refill after the quote
+                }
+                int len = i - start;
+                setText(buf, start, len);
+                if (symbolTable != null && isKeyAt(i + 1)) {
+                    stringValue = symbolTable.addSymbol(buf, start, len, SymbolTable.hash(buf, start, len));
+                }
+                token = JsonToken.STRING;
+                index = i + 1;
+                nextChar();
+                return true;
+            }
+            if (c == '\\') {
+                return false;
+            }
         }
+        return false;
     }
 
+    /**
+     * Scans a string that has escapes or crosses a refill. The chars between escapes are located in the buffer and
+     * copied to the text buffer one run at a time; only escapes and refills go through {@link #nextChar()}.
+     */
     private void scanString() {
+        if (scanStringInBuffer()) {
+            return;
+        }
+
         nextChar();
-        StringBuilder strBuf = new StringBuilder();
+        int len = 0;
         for (;;) {
             if (index == -1) {
-                throw new IllegalArgumentException("illegal string : " + strBuf);
+                throw new IllegalArgumentException("illegal string : " + new String(textBuf, 0, len));
             }
-            if (ch == '"') {
+
+            final char[] buf = this.buf;
+            final int bufLen = this.bufLen;
+            final int start = index - 1;
+
+            int i = start;
+            for (; i < bufLen; ++i) {
+                char c = buf[i];
+                if (c == '"' || c == '\\') {
+                    break;
+                }
+            }
+
+            int runLen = i - start;
+            if (runLen > 0) {
+                ensureTextCapacity(len + runLen);
+                System.arraycopy(buf, start, textBuf, len, runLen);
+                len += runLen;
+            }
+
+            if (i == bufLen) {
+                index = bufLen;
                 nextChar();
-                break;
+                continue;
             }
 
-            if (ch == '\\') {
+            index = i + 1;
+            ch = buf[i];
+
+            if (ch == '"') {
                 nextChar();
-                if (ch == '"' || ch == '\\' || ch == '/') {
-                    strBuf.append(ch);
-                } else if (ch == 'n') {
-                    strBuf.append('\n');
-                } else if (ch == 'r') {
-                    strBuf.append('\r');
-                } else if (ch == 'b') {
-                    strBuf.append('\b');
-                } else if (ch == 'f') {
-                    strBuf.append('\f');
-                } else if (ch == 't') {
-                    strBuf.append('\t');
-                } else if (ch == 'u') {
-                    char u1, u2, u3, u4;
+                break;
+            }
 
-                    nextChar();
-                    u1 = ch;
-                    nextChar();
-                    u2 = ch;
-                    nextChar();
-                    u3 = ch;
-                    nextChar();
-                    u4 = ch;
+            nextChar();
+            char unescaped;
+            if (ch == '"' || ch == '\\' || ch == '/') {
+                unescaped = ch;
+            } else if (ch == 'n') {
+                unescaped = '\n';
+            } else if (ch == 'r') {
+                unescaped = '\r';
+            } else if (ch == 'b') {
+                unescaped = '\b';
+            } else if (ch == 'f') {
+                unescaped = '\f';
+            } else if (ch == 't') {
+                unescaped = '\t';
+            } else if (ch == 'u') {
+                char u1, u2, u3, u4;
 
-                    int charCode = hex(u1) * 4096 + hex(u2) * 256 + hex(u3) * 16 + hex(u4);
+                nextChar();
+                u1 = ch;
+                nextChar();
+                u2 = ch;
+                nextChar();
+                u3 = ch;
+                nextChar();
+                u4 = ch;
 
-                    strBuf.append((char) charCode);
-                } else {
-                    throw new IllegalArgumentException("illegal string : " + strBuf);
-                }
+                unescaped = (char) (hex(u1) * 4096 + hex(u2) * 256 + hex(u3) * 16 + hex(u4));
             } else {
-                strBuf.append(ch);
+                throw new IllegalArgumentException("illegal string : " + new String(textBuf, 0, len));
             }
+
+            ensureTextCapacity(len + 1);
+            textBuf[len++] = unescaped;
             nextChar();
         }
-        stringValue = strBuf.toString();
+
         token = JsonToken.STRING;
+        setText(textBuf, 0, len);
+
+        if (symbolTable != null) {
+            while (ch == ' ' || ch == '\r' || ch == '\n' || ch == '\t') {
+                nextChar();
+            }
+            if (ch == ':' && index != -1) {
+                stringValue = symbolTable.addSymbol(textBuf, 0, len, SymbolTable.hash(textBuf, 0, len));
+            }
+        }
+    }
+
+    private void ensureTextCapacity(int capacity) {
+        if (capacity > textBuf.length) {
+            char[] newBuf = new char[Math.max(capacity, textBuf.length * 2)];
+            System.arraycopy(textBuf, 0, newBuf, 0, textBuf.length);
+            textBuf = newBuf;
+        }
+    }
+
+    /**
+     * Whether the string that just ended is an object key, which is the case when a colon follows it. Only the current
+     * buffer is looked at, so a key followed by a refill is not recognized, which is harmless.
+     */
+    private boolean isKeyAt(int i) {
+        final char[] buf = this.buf;
+        for (; i < bufLen; ++i) {
+            char c = buf[i];
+            if (c == ':') {
+                return true;
+            }
+            if (c != ' ' && c != '\r' && c != '\n' && c != '\t') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the current string token is followed by a colon, making it an object key. The whitespace in between is
+     * skipped, but not the colon, so that the string stays the current token; its text is kept over a refill.
+     */
+    public boolean isColonNext() {
+        for (;;) {
+            if (index == -1) {
+                return false;
+            }
+            if (ch == ':') {
+                return true;
+            }
+            if (ch != ' ' && ch != '\r' && ch != '\n' && ch != '\t') {
+                return false;
+            }
+            if (index == bufLen && textChars == buf) {
+                ensureTextCapacity(textLen);
+                System.arraycopy(buf, textOffset, textBuf, 0, textLen);
+                textChars = textBuf;
+                textOffset = 0;
+            }
+            nextChar();
+        }
     }
 
     static int hex(char ch) {
@@ -0,0 +1,367 @@
+package com.alibaba.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.json.JsonConfiguration;
+import javax.json.JsonException;
+
+/**
+ * A generator writing UTF-8 to an output stream. Chars are encoded as they are written, straight into a byte buffer,
+ * with no {@link java.io.Writer} and no {@link java.nio.charset.CharsetEncoder} in between: runs of ASCII are copied
+ * byte by byte, numbers are written as ASCII digits, and prepared keys as their {@link SerializedKey} bytes.
+ * <p>
+ * Like the JDK encoder, a surrogate char that is not part of a pair is written as <code>'?'</code>.
+ */
+public class JsonUtf8Generator extends JsonGeneratorImpl {
+
+    private final OutputStream out;
+
+    private byte[]             bytes;
+    private int                count;
+
+    /**
+     * A high surrogate written last, whose low surrogate is still to come, or 0.
+     */
+    private char               highSurrogate;
+
+    public JsonUtf8Generator(OutputStream out, JsonConfiguration config){
+        this(out, config, null);
+    }
+
+    /**
+     * @param recycler recycler of the write buffer, or null
+     */
+    public JsonUtf8Generator(OutputStream out, JsonConfiguration config, BufferRecycler recycler){
+        super(config, recycler);
+        this.out = out;
+
+        int bufferSize = getBufferSize(config);
+        this.bytes = recycler != null ? recycler.allocBytes(BufferRecycler.WRITE_BUFFER, bufferSize, bufferSize) : new byte[bufferSize];
+    }
+
+    @Override
+    public JsonGeneratorImpl writeInt(int i) {
+        closeCheck();
+        checkValue();
+
+        if (i == Integer.MIN_VALUE) {
+            write("-2147483648");
+            return this;
+        }
+
+        int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        if (count + size > bytes.length) {
+            flushBuffer();
+        }
+        getBytes(i, count + size, bytes);
+        count += size;
+        return this;
+    }
+
+    @Override
+    public JsonGeneratorImpl writeLong(long i) {
+        closeCheck();
+        checkValue();
+
+        if (i == Long.MIN_VALUE) {
+            write("-9223372036854775808");
+            return this;
+        }
+
+        int size = (i < 0) ? stringSize(-i) + 1 : stringSize(i);
+        if (count + size > bytes.length) {
+            flushBuffer();
+            if (size > bytes.length) {
+                getChars(i, size, numberChars);
+                write(numberChars, 0, size);
+                return this;
+            }
+        }
+        getBytes(i, count + size, bytes);
+        count += size;
+        return this;
+    }
+
+    @Override
+    public JsonGeneratorImpl writeFloat(float value) {
+        closeCheck();
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            return writeNull();
+        }
+        checkValue();
+
+        writeNumber(DoubleToDecimal.toChars(value, numberChars, 0));
+        return this;
+    }
+
+    @Override
+    public JsonGeneratorImpl writeDouble(double value) {
+        closeCheck();
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return writeNull();
+        }
+        checkValue();
+
+        writeNumber(DoubleToDecimal.toChars(value, numberChars, 0));
+        return this;
+    }
+
+    private void writeNumber(int length) {
+        if (count + length > bytes.length) {
+            flushBuffer();
+            if (length > bytes.length) {
+                write(numberChars, 0, length);
+                return;
+            }
+        }
+        for (int i = 0; i < length; ++i) {
+            bytes[count++] = (byte) numberChars[i];
+        }
+    }
+
+    @Override
+    protected void write(String text, int start, int end) {
+        closeCheck();
+
+        for (int i = start; i < end;) {
+            if (highSurrogate == 0) {
+                int limit = Math.min(end, i + bytes.length - count);
+                for (char c; i < limit && (c = text.charAt(i)) < 0x80; ++i) {
+                    bytes[count++] = (byte) c;
+                }
+                if (i == end) {
+                    break;
+                }
+                if (count == bytes.length) {
+                    flushBuffer();
+                    continue;
+                }
+            }
+            encode(text.charAt(i++));
+        }
+    }
+
+    @Override
+    protected void write(char[] chars, int offset, int length) {
+        closeCheck();
+
+        for (int i = offset, end = offset + length; i < end;) {
+            if (highSurrogate == 0) {
+                int limit = Math.min(end, i + bytes.length - count);
+                for (char c; i < limit && (c = chars[i]) < 0x80; ++i) {
+                    bytes[count++] = (byte) c;
+                }
+                if (i == end) {
+                    break;
+                }
+                if (count == bytes.length) {
+                    flushBuffer();
+                    continue;
+                }
+            }
+            encode(chars[i++]);
+        }
+    }
+
+    @Override
+    protected void write(char ch) {
+        closeCheck();
+
+        if (ch < 0x80 && highSurrogate == 0) {
+            if (count == bytes.length) {
+                flushBuffer();
+            }
+            bytes[count++] = (byte) ch;
+            return;
+        }
+        encode(ch);
+    }
+
+    @Override
+    protected void write(SerializedKey key, boolean separated) {
+        closeCheck();
+
+        byte[] keyBytes = key.bytes;
+        int offset = separated ? 0 : 1;
+        int length = keyBytes.length - offset;
+        if (highSurrogate != 0) {
+            encode((char) keyBytes[offset++]); // an ASCII comma or quote
+            length--;
+        }
+        if (count + length > bytes.length) {
+            flushBuffer();
+            if (length > bytes.length) {
+                writeBytes(keyBytes, offset, length);
+                return;
+            }
+        }
+        System.arraycopy(keyBytes, offset, bytes, count, length);
+        count += length;
+    }
+
+    /**
+     * Encodes a char which is not ASCII, or which follows a high surrogate.
+     */
+    private void encode(char c) {
+        if (count + 4 > bytes.length) {
+            flushBuffer();
+        }
+
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                bytes[count++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            bytes[count++] = '?';
+        }
+
+        if (c < 0x80) {
+            bytes[count++] = (byte) c;
+        } else if (c < 0x800) {
+            bytes[count++] = (byte) (0xC0 | (c >> 6));
+            bytes[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            bytes[count++] = '?';
+        } else {
+            bytes[count++] = (byte) (0xE0 | (c >> 12));
+            bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            bytes[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            write('?');
+        }
+        super.close();
+    }
+
+    @Override
+    void releaseBuffer() {
+        if (recycler != null && bytes != null) {
+            recycler.releaseBytes(BufferRecycler.WRITE_BUFFER, bytes);
+        }
+        bytes = null;
+    }
+
+    /**
+     * Writes the buffered bytes and flushes the output stream.
+     */
+    @Override
+    public void flush() {
+        flushBuffer();
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    private void flushBuffer() {
+        if (count == 0) {
+            return;
+        }
+
+        writeBytes(bytes, 0, count);
+        count = 0;
+    }
+
+    private void writeBytes(byte[] b, int offset, int length) {
+        try {
+            out.write(b, offset, length);
+        } catch (IOException e) {
+            throw new JsonException(e);
+        }
+    }
+
+    static void getBytes(int i, int index, byte[] buf) {
+        int q, r;
+        int charPos = index;
+        byte sign = 0;
+
+        if (i < 0) {
+            sign = '-';
+            i = -i;
+        }
+
+        // Generate two digits per iteration
+        while (i >= 65536) {
+            q = i / 100;
+            // really: r = i - (q * 100);
+            r = i - ((q << 6) + (q << 5) + (q << 2));
+            i = q;
+            buf[--charPos] = (byte) DigitOnes[r];
+            buf[--charPos] = (byte) DigitTens[r];
+        }
+
+        // Fall thru to fast mode for smaller numbers
+        for (;;) {
+            q = (i * 52429) >>> (16 + 3);
+            r = i - ((q << 3) + (q << 1)); // r = i-(q*10) ...
+            buf[--charPos] = (byte) digits[r];
+            i = q;
+            if (i == 0) break;
+        }
+        if (sign != 0) {
+            buf[--charPos] = sign;
+        }
+    }
+
+    static void getBytes(long i, int index, byte[] buf) {
+        long q;
+        int r;
+        int charPos = index;
+        byte sign = 0;
+
+        if (i < 0) {
+            sign = '-';
+            i = -i;
+        }
+
+        // Get 2 digits/iteration using longs until quotient fits into an int
+        while (i > Integer.MAX_VALUE) {
+            q = i / 100;
+            // really: r = i - (q * 100);
+            r = (int) (i - ((q << 6) + (q << 5) + (q << 2)));
+            i = q;
+            buf[--charPos] = (byte) DigitOnes[r];
+            buf[--charPos] = (byte) DigitTens[r];
+        }
+
+        // Get 2 digits/iteration using ints
+        int q2;
+        int i2 = (int) i;
+        while (i2 >= 65536) {
+            q2 = i2 / 100;
+            // really: r = i2 - (q * 100);
+            r = i2 - ((q2 << 6) + (q2 << 5) + (q2 << 2));
+            i2 = q2;
+            buf[--charPos] = (byte) DigitOnes[r];
+            buf[--charPos] = (byte) DigitTens[r];
+        }
+
+        // Fall thru to fast mode for smaller numbers
+        for (;;) {
+            q2 = (i2 * 52429) >>> (16 + 3);
+            r = i2 - ((q2 << 3) + (q2 << 1)); // r = i2-(q2*10) ...
+            buf[--charPos] = (byte) digits[r];
+            i2 = q2;
+            if (i2 == 0) break;
+        }
+        if (sign != 0) {
+            buf[--charPos] = sign;
+        }
+    }
+}
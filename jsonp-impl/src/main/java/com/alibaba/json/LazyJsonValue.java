@@ -0,0 +1,39 @@
+package com.alibaba.json;
+
+import javax.json.JsonConfiguration;
+
+/**
+ * An object or array of a lazily read text, kept as its place in the text until it is got from its parent. See
+ * {@link JsonParserImpl#LAZY}.
+ */
+final class LazyJsonValue {
+
+    final char[]                    chars;
+    final int                       offset;
+    final int                       length;
+
+    private final JsonConfiguration config;
+    private final SymbolTable       symbolTable;
+
+    LazyJsonValue(char[] chars, int offset, int length, JsonConfiguration config, SymbolTable symbolTable){
+        this.chars = chars;
+        this.offset = offset;
+        this.length = length;
+        this.config = config;
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Parses the object or array, itself lazily, leaving its own nested values unparsed.
+     */
+    Object parse() {
+        JsonParserImpl parser = new JsonParserImpl(chars, offset, length, config, symbolTable);
+        Object value = parser.parseValue();
+        parser.close();
+        return value;
+    }
+
+    public String toString() {
+        return new String(chars, offset, length);
+    }
+}
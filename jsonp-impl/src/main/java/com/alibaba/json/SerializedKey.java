@@ -0,0 +1,59 @@
+package com.alibaba.json;
+
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+
+import javax.json.JsonConfiguration;
+
+/**
+ * An object key escaped and quoted once, to be written by {@link JsonGeneratorImpl#writeKey(SerializedKey)} as often as
+ * needed. Writers of many objects with the same keys, such as beans or records of a fixed schema, prepare them up front
+ * rather than escape each key on every object.
+ * <p>
+ * The key is kept with its separator and colon, <code>,"key":</code>, as chars and as UTF-8 bytes, so writing it is one
+ * array copy.
+ */
+public final class SerializedKey {
+
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    private final String         key;
+
+    final char[]                 chars;
+    final byte[]                 bytes;
+
+    public SerializedKey(String key){
+        this.key = key;
+
+        StringWriter out = new StringWriter();
+        out.write(',');
+        if (key == null) {
+            out.write("\"null\"");
+        } else {
+            JsonGeneratorImpl generator = new JsonGeneratorImpl(out, JsonConfiguration.defaultConfig);
+            generator.writeString(key, true, true);
+            generator.flush();
+        }
+        out.write(':');
+
+        String text = out.toString();
+        this.chars = text.toCharArray();
+        this.bytes = text.getBytes(UTF8);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the UTF-8 bytes of <code>,"key":</code>.
+     */
+    public byte[] getBytes() {
+        return bytes.clone();
+    }
+
+    @Override
+    public String toString() {
+        return new String(chars, 1, chars.length - 1);
+    }
+}
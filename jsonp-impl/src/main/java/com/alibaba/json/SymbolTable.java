@@ -0,0 +1,153 @@
+package com.alibaba.json;
+
+import java.util.Arrays;
+
+/**
+ * A table of canonical strings for object keys. When the same keys are parsed over and over, the tokenizer looks the
+ * key chars up here and gets the existing String back instead of allocating a new one.
+ * <p>
+ * The table is bounded so that hostile input can't grow it or degrade it: keys longer than {@link #MAX_SYMBOL_LENGTH}
+ * are never added, and a bucket holds at most {@link #MAX_BUCKET_LENGTH} entries, after which colliding keys are simply
+ * not interned. A lookup therefore costs at most that many comparisons, whatever the input.
+ * <p>
+ * So that the first keys seen, junk included, don't hold the buckets forever, the table clears itself once it has
+ * turned away more keys than it can hold, and starts over with the key it could not add.
+ * <p>
+ * The table is safe to share between threads. Entries are immutable and a bucket is replaced in a single write, so a
+ * racing insert can at worst be lost, which only means a key is allocated once more. The count of keys turned away
+ * may lose racing increments the same way, which only delays a clear.
+ */
+public class SymbolTable {
+
+    public final static int MAX_SYMBOL_LENGTH = 64;
+    public final static int MAX_BUCKET_LENGTH = 4;
+
+    private final Entry[]   buckets;
+    private final int       mask;
+
+    // keys not added since the table was last cleared, because their bucket was full
+    private int             overflows;
+
+    /**
+     * @param capacity the number of buckets, rounded up to a power of two
+     */
+    public SymbolTable(int capacity){
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.buckets = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    public static int hash(char[] chars, int offset, int len) {
+        int h = 0x811C9DC5;
+        for (int i = offset, end = offset + len; i < end; ++i) {
+            h = (h ^ chars[i]) * 0x01000193;
+        }
+        return h;
+    }
+
+    public static int hash(String text) {
+        int h = 0x811C9DC5;
+        for (int i = 0, len = text.length(); i < len; ++i) {
+            h = (h ^ text.charAt(i)) * 0x01000193;
+        }
+        return h;
+    }
+
+    /**
+     * Returns the canonical String for the chars, adding it to the table if there is room.
+     */
+    public String addSymbol(char[] chars, int offset, int len, int hash) {
+        if (len > MAX_SYMBOL_LENGTH) {
+            return new String(chars, offset, len);
+        }
+
+        final int index = hash & mask;
+        final Entry first = buckets[index];
+
+        int count = 0;
+        for (Entry entry = first; entry != null; entry = entry.next) {
+            if (entry.hash == hash && entry.equals(chars, offset, len)) {
+                return entry.symbol;
+            }
+            count++;
+        }
+
+        String symbol = new String(chars, offset, len);
+        add(index, symbol, hash, first, count);
+        return symbol;
+    }
+
+    /**
+     * Returns the canonical String equal to the text, adding the text to the table if there is room.
+     */
+    public String addSymbol(String text) {
+        int len = text.length();
+        if (len > MAX_SYMBOL_LENGTH) {
+            return text;
+        }
+
+        final int hash = hash(text);
+        final int index = hash & mask;
+        final Entry first = buckets[index];
+
+        int count = 0;
+        for (Entry entry = first; entry != null; entry = entry.next) {
+            if (entry.hash == hash && entry.symbol.equals(text)) {
+                return entry.symbol;
+            }
+            count++;
+        }
+
+        add(index, text, hash, first, count);
+        return text;
+    }
+
+    private void add(int index, String symbol, int hash, Entry first, int count) {
+        if (count >= MAX_BUCKET_LENGTH) {
+            if (++overflows <= buckets.length * MAX_BUCKET_LENGTH) {
+                return;
+            }
+            clear();
+            first = null;
+        }
+        buckets[index] = new Entry(symbol, hash, first);
+    }
+
+    /**
+     * Removes all the symbols.
+     */
+    public void clear() {
+        Arrays.fill(buckets, null);
+        overflows = 0;
+    }
+
+    private static class Entry {
+
+        final String symbol;
+        final char[] chars;
+        final int    hash;
+        final Entry  next;
+
+        Entry(String symbol, int hash, Entry next){
+            this.symbol = symbol;
+            this.chars = symbol.toCharArray();
+            this.hash = hash;
+            this.next = next;
+        }
+
+        boolean equals(char[] other, int offset, int len) {
+            if (chars.length != len) {
+                return false;
+            }
+            for (int i = 0; i < len; ++i) {
+                if (chars[i] != other[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
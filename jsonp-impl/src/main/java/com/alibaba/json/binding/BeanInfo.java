@@ -1,15 +1,58 @@
 package com.alibaba.json.binding;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
+import javax.json.JsonException;
+
+/**
+ * The properties of a bean class, found once by introspection: public setters and getters, and public fields. The
+ * properties are ordered as the fields they are named after are declared, superclass first, and the others by name.
+ * <p>
+ * The infos are per type: the types of the properties are resolved against the type the bean is read as, so that a
+ * property of type <code>T</code> of a <code>Box&lt;T&gt;</code> read as <code>Box&lt;Item&gt;</code> has the type
+ * <code>Item</code>. The properties of all the types of a class are in the same order.
+ */
 public class BeanInfo {
-    private final Type     type;
-    private final Class<?> clazz;
-    
+    private final Type                      type;
+    private final Class<?>                  clazz;
+
+    private final Constructor<?>            constructor;
+    private final PropertyInfo[]            properties;
+    private final Map<String, Integer>      propertyIndexes;
+
     public BeanInfo(Type type, Class<?> clazz){
+        this(type, clazz, null, new PropertyInfo[0]);
+    }
+
+    public BeanInfo(Type type, Class<?> clazz, Constructor<?> constructor, PropertyInfo[] properties){
         super();
         this.type = type;
         this.clazz = clazz;
+        this.constructor = constructor;
+        this.properties = properties;
+        this.propertyIndexes = new HashMap<String, Integer>(properties.length * 2);
+        for (int i = 0; i < properties.length; ++i) {
+            propertyIndexes.put(properties[i].getName(), i);
+        }
     }
 
     public Type getType() {
@@ -20,4 +63,331 @@ public class BeanInfo {
         return clazz;
     }
 
+    public PropertyInfo[] getProperties() {
+        return properties;
+    }
+
+    public PropertyInfo getProperty(String name) {
+        Integer index = propertyIndexes.get(name);
+        return index != null ? properties[index] : null;
+    }
+
+    /**
+     * Returns the index of a property in {@link #getProperties()}, or -1.
+     */
+    public int getPropertyIndex(String name) {
+        Integer index = propertyIndexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    public Object newInstance() {
+        if (constructor == null) {
+            throw new JsonException("default constructor not found : " + clazz);
+        }
+
+        try {
+            return constructor.newInstance();
+        } catch (InstantiationException e) {
+            throw new JsonException("create instance error : " + clazz, e);
+        } catch (IllegalAccessException e) {
+            throw new JsonException("create instance error : " + clazz, e);
+        } catch (InvocationTargetException e) {
+            throw new JsonException("create instance error : " + clazz, e.getTargetException());
+        }
+    }
+
+    public static BeanInfo create(Type type) {
+        Class<?> clazz = getClass(type);
+
+        Constructor<?> constructor = null;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+            if (!Modifier.isPublic(constructor.getModifiers()) || !Modifier.isPublic(clazz.getModifiers())) {
+                constructor.setAccessible(true);
+            }
+        } catch (NoSuchMethodException e) {
+            // read only
+        } catch (SecurityException e) {
+            // read only
+        }
+
+        Map<String, Method> getters = new HashMap<String, Method>();
+        Map<String, Method> setters = new HashMap<String, Method>();
+        Map<String, Field> fields = new HashMap<String, Field>();
+
+        for (Method method : clazz.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+
+            String methodName = method.getName();
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            if (methodName.length() > 3 && methodName.startsWith("set") && parameterTypes.length == 1
+                && method.getReturnType() == void.class) {
+                setters.put(decapitalize(methodName.substring(3)), method);
+            } else if (methodName.length() > 3 && methodName.startsWith("get") && parameterTypes.length == 0
+                       && method.getReturnType() != void.class) {
+                getters.put(decapitalize(methodName.substring(3)), method);
+            } else if (methodName.length() > 2 && methodName.startsWith("is") && parameterTypes.length == 0
+                       && method.getReturnType() == boolean.class) {
+                getters.put(decapitalize(methodName.substring(2)), method);
+            }
+        }
+
+        for (Field field : clazz.getFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                fields.put(field.getName(), field);
+            }
+        }
+
+        // declared field order first, then by name
+        Map<String, Integer> order = new HashMap<String, Integer>();
+        List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!order.containsKey(field.getName())) {
+                    order.put(field.getName(), order.size());
+                }
+            }
+        }
+
+        Map<String, PropertyInfo> ordered = new TreeMap<String, PropertyInfo>();
+        Map<Integer, PropertyInfo> declared = new TreeMap<Integer, PropertyInfo>();
+        Set<String> names = new LinkedHashSet<String>(getters.keySet());
+        names.addAll(setters.keySet());
+        names.addAll(fields.keySet());
+
+        for (String name : names) {
+            Method getter = getters.get(name);
+            Method setter = setters.get(name);
+            Field field = fields.get(name);
+
+            Class<?> propertyClass;
+            Type propertyType;
+            if (setter != null) {
+                propertyClass = setter.getParameterTypes()[0];
+                propertyType = setter.getGenericParameterTypes()[0];
+            } else if (getter != null) {
+                propertyClass = getter.getReturnType();
+                propertyType = getter.getGenericReturnType();
+            } else {
+                propertyClass = field.getType();
+                propertyType = field.getGenericType();
+            }
+            propertyType = resolve(propertyType, type);
+
+            if (getter != null && getter.getReturnType() != propertyClass) {
+                getter = null;
+            }
+            if (field != null && (getter != null || setter != null || field.getType() != propertyClass)) {
+                field = null;
+            }
+            if (getter == null && setter == null && field == null) {
+                continue;
+            }
+
+            PropertyInfo property = new PropertyInfo(propertyClass, propertyType, name, getter, setter, field);
+            Integer index = order.get(name);
+            if (index != null) {
+                declared.put(index, property);
+            } else {
+                ordered.put(name, property);
+            }
+        }
+
+        List<PropertyInfo> properties = new ArrayList<PropertyInfo>(declared.values());
+        properties.addAll(ordered.values());
+        return new BeanInfo(type, clazz, constructor, properties.toArray(new PropertyInfo[properties.size()]));
+    }
+
+    public static Class<?> getClass(Type type) {
+        if (type instanceof Class<?>) {
+            return (Class<?>) type;
+        }
+
+        if (type instanceof ParameterizedType) {
+            return getClass(((ParameterizedType) type).getRawType());
+        }
+
+        if (type instanceof GenericArrayType) {
+            Class<?> componentClass = getClass(((GenericArrayType) type).getGenericComponentType());
+            return Array.newInstance(componentClass, 0).getClass();
+        }
+
+        // unresolved type variables and wildcards, by their bound
+        if (type instanceof TypeVariable<?>) {
+            return getClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        if (type instanceof WildcardType) {
+            return getClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    /**
+     * Replaces the type variables in a type by the type arguments they have in an owner type, following its generic
+     * superclasses; the variables that have none are left as they are.
+     */
+    public static Type resolve(Type type, Type owner) {
+        if (type instanceof TypeVariable<?>) {
+            Type resolved = resolveVariable((TypeVariable<?>) type, owner);
+            return resolved != null ? resolved : type;
+        }
+
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Type[] arguments = parameterizedType.getActualTypeArguments();
+            boolean changed = false;
+            for (int i = 0; i < arguments.length; ++i) {
+                Type argument = resolve(arguments[i], owner);
+                if (argument != arguments[i]) {
+                    arguments[i] = argument;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                return type;
+            }
+            return new ResolvedParameterizedType((Class<?>) parameterizedType.getRawType(),
+                                                 parameterizedType.getOwnerType(), arguments);
+        }
+
+        if (type instanceof GenericArrayType) {
+            Type componentType = ((GenericArrayType) type).getGenericComponentType();
+            Type resolved = resolve(componentType, owner);
+            if (resolved == componentType) {
+                return type;
+            }
+            if (resolved instanceof Class<?>) {
+                return Array.newInstance((Class<?>) resolved, 0).getClass();
+            }
+            return new ResolvedArrayType(resolved);
+        }
+
+        return type;
+    }
+
+    private static Type resolveVariable(TypeVariable<?> variable, Type owner) {
+        GenericDeclaration declaration = variable.getGenericDeclaration();
+        if (!(declaration instanceof Class<?>)) {
+            return null;
+        }
+
+        for (Type current = owner; current != null;) {
+            Class<?> clazz = getClass(current);
+            if (clazz == declaration) {
+                if (!(current instanceof ParameterizedType)) {
+                    return null;
+                }
+                TypeVariable<?>[] parameters = clazz.getTypeParameters();
+                for (int i = 0; i < parameters.length; ++i) {
+                    if (parameters[i].equals(variable)) {
+                        return ((ParameterizedType) current).getActualTypeArguments()[i];
+                    }
+                }
+                return null;
+            }
+
+            Type superType = clazz.getGenericSuperclass();
+            if (superType == null) {
+                return null;
+            }
+            current = resolve(superType, current);
+        }
+        return null;
+    }
+
+    private static final class ResolvedParameterizedType implements ParameterizedType {
+
+        private final Class<?> rawType;
+        private final Type     ownerType;
+        private final Type[]   arguments;
+
+        ResolvedParameterizedType(Class<?> rawType, Type ownerType, Type[] arguments){
+            this.rawType = rawType;
+            this.ownerType = ownerType;
+            this.arguments = arguments;
+        }
+
+        public Type[] getActualTypeArguments() {
+            return arguments.clone();
+        }
+
+        public Type getRawType() {
+            return rawType;
+        }
+
+        public Type getOwnerType() {
+            return ownerType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ParameterizedType)) {
+                return false;
+            }
+            ParameterizedType other = (ParameterizedType) o;
+            return rawType.equals(other.getRawType())
+                   && (ownerType == null ? other.getOwnerType() == null : ownerType.equals(other.getOwnerType()))
+                   && Arrays.equals(arguments, other.getActualTypeArguments());
+        }
+
+        @Override
+        public int hashCode() {
+            // as the JDK implementation, so that equal types share a cache entry
+            return Arrays.hashCode(arguments) ^ (ownerType == null ? 0 : ownerType.hashCode()) ^ rawType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder buf = new StringBuilder(rawType.getName()).append('<');
+            for (int i = 0; i < arguments.length; ++i) {
+                if (i != 0) {
+                    buf.append(", ");
+                }
+                buf.append(arguments[i] instanceof Class<?> ? ((Class<?>) arguments[i]).getName() : arguments[i].toString());
+            }
+            return buf.append('>').toString();
+        }
+    }
+
+    private static final class ResolvedArrayType implements GenericArrayType {
+
+        private final Type componentType;
+
+        ResolvedArrayType(Type componentType){
+            this.componentType = componentType;
+        }
+
+        public Type getGenericComponentType() {
+            return componentType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof GenericArrayType && componentType.equals(((GenericArrayType) o).getGenericComponentType());
+        }
+
+        @Override
+        public int hashCode() {
+            return componentType.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return componentType + "[]";
+        }
+    }
+
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        char[] chars = name.toCharArray();
+        chars[0] = Character.toLowerCase(chars[0]);
+        return new String(chars);
+    }
 }
@@ -0,0 +1,39 @@
+package com.alibaba.json.binding;
+
+/**
+ * Creates the beans of one class and sets their properties as they are read. The readers are generated per class by
+ * {@link BeanReaderGenerator}, or work by reflection where a class can't be generated.
+ */
+public abstract class BeanReader {
+
+    protected final BeanInfo beanInfo;
+
+    protected BeanReader(BeanInfo beanInfo){
+        this.beanInfo = beanInfo;
+    }
+
+    public BeanInfo getBeanInfo() {
+        return beanInfo;
+    }
+
+    public abstract Object newInstance();
+
+    /**
+     * Sets a writable property.
+     *
+     * @param index the index of the property in {@link BeanInfo#getProperties()}
+     * @param value a value of the class of the property, boxed if it is primitive
+     */
+    public abstract void set(Object bean, int index, Object value);
+
+    /**
+     * Returns the reader of a class, generated if possible.
+     */
+    public static BeanReader create(BeanInfo beanInfo) {
+        BeanReader reader = BeanReaderGenerator.generate(beanInfo);
+        if (reader == null) {
+            reader = new ReflectBeanReader(beanInfo);
+        }
+        return reader;
+    }
+}
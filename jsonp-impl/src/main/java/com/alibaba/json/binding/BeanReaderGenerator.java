@@ -0,0 +1,255 @@
+package com.alibaba.json.binding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a {@link BeanReader} class per bean class, which creates the beans with <code>new</code> and calls the
+ * setters, or assigns the public fields, directly: <code>set</code> switches on the index of the property and unboxes
+ * a primitive value before passing it on. The class file is written with {@link ClassFileWriter}, like the ones of
+ * {@link BeanWriterGenerator}.
+ * <p>
+ * A class can't be generated if it has no public default constructor, or if it, the classes declaring its setters or
+ * fields, or the classes of its writable properties are not public; {@link #generate(BeanInfo)} then returns null and
+ * the bean is read by reflection.
+ */
+final class BeanReaderGenerator {
+
+    private final static String        READER         = ClassFileWriter.internalName(BeanReader.class);
+    private final static String        BEAN_INFO_DESC = "L" + ClassFileWriter.internalName(BeanInfo.class) + ";";
+
+    private final static AtomicInteger classCount     = new AtomicInteger();
+
+    private BeanReaderGenerator(){
+    }
+
+    static BeanReader generate(BeanInfo beanInfo) {
+        Class<?> clazz = beanInfo.getClazz();
+        if (!isAccessible(clazz, beanInfo.getProperties())) {
+            return null;
+        }
+
+        String className = READER + "_" + clazz.getSimpleName() + "_" + classCount.incrementAndGet();
+        byte[] classFile;
+        try {
+            classFile = writeClass(className, clazz, beanInfo.getProperties());
+        } catch (IOException e) {
+            return null; // not thrown by a byte array
+        }
+
+        try {
+            Class<?> readerClass = ClassFileWriter.define(clazz.getClassLoader(), className, classFile);
+            Constructor<?> constructor = readerClass.getConstructor(BeanInfo.class);
+            return (BeanReader) constructor.newInstance(beanInfo);
+        } catch (Exception e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessible(Class<?> clazz, PropertyInfo[] properties) {
+        if (!isPublic(clazz) || Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface()) {
+            return false;
+        }
+        try {
+            clazz.getConstructor();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+
+        for (PropertyInfo property : properties) {
+            if (!property.isWritable()) {
+                continue;
+            }
+            Class<?> declaringClass = property.getSetter() != null ? property.getSetter().getDeclaringClass() : property.getField().getDeclaringClass();
+            if (!Modifier.isPublic(declaringClass.getModifiers()) || !isPublic(property.getClazz())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a class can be named by a generated class: public, nested in public classes, or an array of such a class.
+     */
+    private static boolean isPublic(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        for (Class<?> c = clazz; c != null; c = c.getEnclosingClass()) {
+            if (!c.isPrimitive() && !Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the class file of:
+     *
+     * <pre>
+     * public final class Reader extends BeanReader {
+     *     public Reader(BeanInfo beanInfo) { super(beanInfo); }
+     *     public Object newInstance() { return new Bean(); }
+     *     public void set(Object bean, int index, Object value) {
+     *         switch (index) {
+     *             case 0: ((Bean) bean).setId(((Integer) value).intValue()); return;
+     *             case 1: ((Bean) bean).name = (String) value; return;
+     *             ...
+     *             default: return;
+     *         }
+     *     }
+     * }
+     * </pre>
+     */
+    private static byte[] writeClass(String className, Class<?> clazz, PropertyInfo[] properties) throws IOException {
+        ClassFileWriter classFile = new ClassFileWriter();
+        String beanClass = ClassFileWriter.internalName(clazz);
+
+        // constructor
+        ByteArrayOutputStream initCode = new ByteArrayOutputStream();
+        DataOutputStream init = new DataOutputStream(initCode);
+        init.writeByte(ALOAD_0);
+        init.writeByte(ALOAD_1);
+        init.writeByte(INVOKESPECIAL);
+        init.writeShort(classFile.methodRef(READER, "<init>", "(" + BEAN_INFO_DESC + ")V"));
+        init.writeByte(RETURN);
+
+        // newInstance method
+        ByteArrayOutputStream newCode = new ByteArrayOutputStream();
+        DataOutputStream create = new DataOutputStream(newCode);
+        create.writeByte(NEW);
+        create.writeShort(classFile.classInfo(beanClass));
+        create.writeByte(DUP);
+        create.writeByte(INVOKESPECIAL);
+        create.writeShort(classFile.methodRef(beanClass, "<init>", "()V"));
+        create.writeByte(ARETURN);
+
+        // set method, a case per property, the ones that are not writable going to the default
+        byte[][] cases = new byte[properties.length][];
+        for (int i = 0; i < properties.length; ++i) {
+            if (properties[i].isWritable()) {
+                cases[i] = writeCase(classFile, beanClass, properties[i]);
+            }
+        }
+
+        ByteArrayOutputStream setCode = new ByteArrayOutputStream();
+        DataOutputStream set = new DataOutputStream(setCode);
+        if (properties.length != 0) {
+            set.writeByte(ILOAD_2);
+            int switchOffset = setCode.size();
+            set.writeByte(TABLESWITCH);
+            while (setCode.size() % 4 != 0) {
+                set.writeByte(0);
+            }
+
+            int offset = setCode.size() + 12 + 4 * properties.length - switchOffset;
+            int[] caseOffsets = new int[properties.length];
+            for (int i = 0; i < properties.length; ++i) {
+                if (cases[i] != null) {
+                    caseOffsets[i] = offset;
+                    offset += cases[i].length;
+                }
+            }
+            int defaultOffset = offset;
+
+            set.writeInt(defaultOffset);
+            set.writeInt(0); // low
+            set.writeInt(properties.length - 1); // high
+            for (int i = 0; i < properties.length; ++i) {
+                set.writeInt(cases[i] != null ? caseOffsets[i] : defaultOffset);
+            }
+            for (byte[] code : cases) {
+                if (code != null) {
+                    set.write(code);
+                }
+            }
+        }
+        set.writeByte(RETURN);
+
+        classFile.method("<init>", "(" + BEAN_INFO_DESC + ")V", 2, 2, initCode.toByteArray());
+        classFile.method("newInstance", "()Ljava/lang/Object;", 2, 1, newCode.toByteArray());
+        classFile.method("set", "(Ljava/lang/Object;ILjava/lang/Object;)V", 3, 4, setCode.toByteArray());
+        return classFile.toByteArray(className, READER);
+    }
+
+    private static byte[] writeCase(ClassFileWriter classFile, String beanClass, PropertyInfo property) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(ALOAD_1);
+        out.writeByte(CHECKCAST);
+        out.writeShort(classFile.classInfo(beanClass));
+        out.writeByte(ALOAD_3);
+
+        Class<?> type = property.getClazz();
+        if (type.isPrimitive()) {
+            String box = ClassFileWriter.internalName(box(type));
+            out.writeByte(CHECKCAST);
+            out.writeShort(classFile.classInfo(box));
+            out.writeByte(INVOKEVIRTUAL);
+            out.writeShort(classFile.methodRef(box, type.getName() + "Value", "()" + ClassFileWriter.descriptor(type)));
+        } else if (type != Object.class) {
+            out.writeByte(CHECKCAST);
+            out.writeShort(classFile.classInfo(ClassFileWriter.internalName(type)));
+        }
+
+        String descriptor = ClassFileWriter.descriptor(type);
+        Method setter = property.getSetter();
+        if (setter != null) {
+            out.writeByte(INVOKEVIRTUAL);
+            out.writeShort(classFile.methodRef(beanClass, setter.getName(), "(" + descriptor + ")V"));
+        } else {
+            Field field = property.getField();
+            out.writeByte(PUTFIELD);
+            out.writeShort(classFile.fieldRef(beanClass, field.getName(), descriptor));
+        }
+        out.writeByte(RETURN);
+        return bytes.toByteArray();
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        return Character.class;
+    }
+
+    private final static int ALOAD_0       = 0x2a;
+    private final static int ALOAD_1       = 0x2b;
+    private final static int ALOAD_3       = 0x2d;
+    private final static int ILOAD_2       = 0x1c;
+    private final static int DUP           = 0x59;
+    private final static int TABLESWITCH   = 0xaa;
+    private final static int ARETURN       = 0xb0;
+    private final static int RETURN        = 0xb1;
+    private final static int PUTFIELD      = 0xb5;
+    private final static int INVOKEVIRTUAL = 0xb6;
+    private final static int INVOKESPECIAL = 0xb7;
+    private final static int NEW           = 0xbb;
+    private final static int CHECKCAST     = 0xc0;
+}
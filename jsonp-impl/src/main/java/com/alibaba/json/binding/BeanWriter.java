@@ -0,0 +1,59 @@
+package com.alibaba.json.binding;
+
+import com.alibaba.json.JsonGeneratorImpl;
+import com.alibaba.json.SerializedKey;
+
+/**
+ * Writes the properties of the beans of one class as a JSON object. The writers are generated per class by
+ * {@link BeanWriterGenerator}, or work by reflection where a class can't be generated.
+ */
+public abstract class BeanWriter {
+
+    /**
+     * The names of the properties, in the order they are written.
+     */
+    protected final SerializedKey[] names;
+
+    protected BeanWriter(SerializedKey[] names){
+        this.names = names;
+    }
+
+    public abstract void write(JsonGeneratorImpl out, Object bean);
+
+    /**
+     * Returns the writer of a class, generated if possible.
+     */
+    public static BeanWriter create(BeanInfo beanInfo) {
+        BeanWriter writer = BeanWriterGenerator.generate(beanInfo);
+        if (writer == null) {
+            writer = new ReflectBeanWriter(beanInfo);
+        }
+        return writer;
+    }
+
+    static PropertyInfo[] getReadableProperties(BeanInfo beanInfo) {
+        int count = 0;
+        for (PropertyInfo property : beanInfo.getProperties()) {
+            if (property.isReadable()) {
+                count++;
+            }
+        }
+
+        PropertyInfo[] properties = new PropertyInfo[count];
+        count = 0;
+        for (PropertyInfo property : beanInfo.getProperties()) {
+            if (property.isReadable()) {
+                properties[count++] = property;
+            }
+        }
+        return properties;
+    }
+
+    static SerializedKey[] getNames(PropertyInfo[] properties) {
+        SerializedKey[] names = new SerializedKey[properties.length];
+        for (int i = 0; i < properties.length; ++i) {
+            names[i] = new SerializedKey(properties[i].getName());
+        }
+        return names;
+    }
+}
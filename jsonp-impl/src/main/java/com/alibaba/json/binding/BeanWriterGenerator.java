@@ -0,0 +1,228 @@
+package com.alibaba.json.binding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.alibaba.json.JsonGeneratorImpl;
+import com.alibaba.json.SerializedKey;
+
+/**
+ * Generates a {@link BeanWriter} class per bean class, whose <code>write</code> method calls the getters, or reads the
+ * public fields, directly and hands each value to the {@link JsonGeneratorImpl} method of its type. The class file is
+ * written by hand with {@link ClassFileWriter}, it only needs a constant pool and one method body without branches, so
+ * no bytecode library is involved. The class is defined by a loader child of the bean class loader.
+ * <p>
+ * A class can't be generated if it or the classes declaring its getters are not public, or if its loader doesn't let
+ * the generated class be defined or linked; {@link #generate(BeanInfo)} then returns null and the bean is written by
+ * reflection.
+ */
+final class BeanWriterGenerator {
+
+    private final static String        WRITER     = ClassFileWriter.internalName(BeanWriter.class);
+    private final static String        GENERATOR  = ClassFileWriter.internalName(JsonGeneratorImpl.class);
+    private final static String        GENERATOR_DESC = "L" + GENERATOR + ";";
+    private final static String        KEY        = ClassFileWriter.internalName(SerializedKey.class);
+    private final static String        NAMES_DESC = "[L" + KEY + ";";
+
+    private final static AtomicInteger classCount = new AtomicInteger();
+
+    private BeanWriterGenerator(){
+    }
+
+    static BeanWriter generate(BeanInfo beanInfo) {
+        Class<?> clazz = beanInfo.getClazz();
+        PropertyInfo[] properties = BeanWriter.getReadableProperties(beanInfo);
+        if (!isAccessible(clazz, properties)) {
+            return null;
+        }
+
+        String className = WRITER + "_" + clazz.getSimpleName() + "_" + classCount.incrementAndGet();
+        byte[] classFile;
+        try {
+            classFile = writeClass(className, clazz, properties);
+        } catch (IOException e) {
+            return null; // not thrown by a byte array
+        }
+
+        try {
+            Class<?> writerClass = ClassFileWriter.define(clazz.getClassLoader(), className, classFile);
+            Constructor<?> constructor = writerClass.getConstructor(SerializedKey[].class);
+            return (BeanWriter) constructor.newInstance((Object) BeanWriter.getNames(properties));
+        } catch (Exception e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    private static boolean isAccessible(Class<?> clazz, PropertyInfo[] properties) {
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        for (Class<?> c = clazz.getEnclosingClass(); c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return false;
+            }
+        }
+
+        for (PropertyInfo property : properties) {
+            Class<?> declaringClass = property.getGetter() != null ? property.getGetter().getDeclaringClass() : property.getField().getDeclaringClass();
+            if (!Modifier.isPublic(declaringClass.getModifiers())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the class file of:
+     * 
+     * <pre>
+     * public final class Writer extends BeanWriter {
+     *     public Writer(SerializedKey[] names) { super(names); }
+     *     public void write(JsonGeneratorImpl out, Object bean) {
+     *         Bean b = (Bean) bean;
+     *         out.beginObject();
+     *         out.writeKey(names[0]);
+     *         out.writeInt(b.getId());
+     *         ...
+     *         out.endObject();
+     *     }
+     * }
+     * </pre>
+     */
+    private static byte[] writeClass(String className, Class<?> clazz, PropertyInfo[] properties) throws IOException {
+        ClassFileWriter classFile = new ClassFileWriter();
+
+        // constructor
+        ByteArrayOutputStream initCode = new ByteArrayOutputStream();
+        DataOutputStream init = new DataOutputStream(initCode);
+        init.writeByte(ALOAD_0);
+        init.writeByte(ALOAD_1);
+        init.writeByte(INVOKESPECIAL);
+        init.writeShort(classFile.methodRef(WRITER, "<init>", "(" + NAMES_DESC + ")V"));
+        init.writeByte(RETURN);
+
+        // write method
+        String beanClass = ClassFileWriter.internalName(clazz);
+        ByteArrayOutputStream writeCode = new ByteArrayOutputStream();
+        DataOutputStream write = new DataOutputStream(writeCode);
+        write.writeByte(ALOAD_2);
+        write.writeByte(CHECKCAST);
+        write.writeShort(classFile.classInfo(beanClass));
+        write.writeByte(ASTORE_3);
+
+        write.writeByte(ALOAD_1);
+        write.writeByte(INVOKEVIRTUAL);
+        write.writeShort(classFile.methodRef(GENERATOR, "beginObject", "()" + GENERATOR_DESC));
+        write.writeByte(POP);
+
+        int names = classFile.fieldRef(WRITER, "names", NAMES_DESC);
+        int writeKey = classFile.methodRef(GENERATOR, "writeKey", "(L" + KEY + ";)" + GENERATOR_DESC);
+        for (int i = 0; i < properties.length; ++i) {
+            PropertyInfo property = properties[i];
+
+            write.writeByte(ALOAD_1);
+            write.writeByte(ALOAD_0);
+            write.writeByte(GETFIELD);
+            write.writeShort(names);
+            pushInt(write, i);
+            write.writeByte(AALOAD);
+            write.writeByte(INVOKEVIRTUAL);
+            write.writeShort(writeKey);
+            write.writeByte(POP);
+
+            write.writeByte(ALOAD_1);
+            write.writeByte(ALOAD_3);
+            Class<?> type;
+            Method getter = property.getGetter();
+            if (getter != null) {
+                type = getter.getReturnType();
+                write.writeByte(INVOKEVIRTUAL);
+                write.writeShort(classFile.methodRef(beanClass, getter.getName(), "()" + ClassFileWriter.descriptor(type)));
+            } else {
+                Field field = property.getField();
+                type = field.getType();
+                write.writeByte(GETFIELD);
+                write.writeShort(classFile.fieldRef(beanClass, field.getName(), ClassFileWriter.descriptor(type)));
+            }
+
+            String writeMethod;
+            String writeDesc;
+            if (type == int.class || type == short.class || type == byte.class) {
+                writeMethod = "writeInt";
+                writeDesc = "I";
+            } else if (type == long.class) {
+                writeMethod = "writeLong";
+                writeDesc = "J";
+            } else if (type == boolean.class) {
+                writeMethod = "writeBoolean";
+                writeDesc = "Z";
+            } else if (type == double.class) {
+                writeMethod = "writeDouble";
+                writeDesc = "D";
+            } else if (type == float.class) {
+                writeMethod = "writeFloat";
+                writeDesc = "F";
+            } else if (type == String.class) {
+                writeMethod = "writeString";
+                writeDesc = "Ljava/lang/String;";
+            } else {
+                if (type == char.class) {
+                    write.writeByte(INVOKESTATIC);
+                    write.writeShort(classFile.methodRef("java/lang/Character", "valueOf", "(C)Ljava/lang/Character;"));
+                }
+                writeMethod = "writeAny";
+                writeDesc = "Ljava/lang/Object;";
+            }
+            write.writeByte(INVOKEVIRTUAL);
+            write.writeShort(classFile.methodRef(GENERATOR, writeMethod, "(" + writeDesc + ")" + GENERATOR_DESC));
+            write.writeByte(POP);
+        }
+
+        write.writeByte(ALOAD_1);
+        write.writeByte(INVOKEVIRTUAL);
+        write.writeShort(classFile.methodRef(GENERATOR, "endObject", "()" + GENERATOR_DESC));
+        write.writeByte(POP);
+        write.writeByte(RETURN);
+
+        classFile.method("<init>", "(" + NAMES_DESC + ")V", 2, 2, initCode.toByteArray());
+        classFile.method("write", "(" + GENERATOR_DESC + "Ljava/lang/Object;)V", 4, 4, writeCode.toByteArray());
+        return classFile.toByteArray(className, WRITER);
+    }
+
+    private static void pushInt(DataOutputStream out, int value) throws IOException {
+        if (value <= 5) {
+            out.writeByte(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            out.writeByte(BIPUSH);
+            out.writeByte(value);
+        } else {
+            out.writeByte(SIPUSH);
+            out.writeShort(value);
+        }
+    }
+
+    private final static int ICONST_0      = 0x03;
+    private final static int BIPUSH        = 0x10;
+    private final static int SIPUSH        = 0x11;
+    private final static int ALOAD_0       = 0x2a;
+    private final static int ALOAD_1       = 0x2b;
+    private final static int ALOAD_2       = 0x2c;
+    private final static int ASTORE_3      = 0x4e;
+    private final static int AALOAD        = 0x32;
+    private final static int POP           = 0x57;
+    private final static int RETURN        = 0xb1;
+    private final static int GETFIELD      = 0xb4;
+    private final static int INVOKEVIRTUAL = 0xb6;
+    private final static int INVOKESPECIAL = 0xb7;
+    private final static int INVOKESTATIC  = 0xb8;
+    private final static int CHECKCAST     = 0xc0;
+    private final static int ALOAD_3       = 0x2d;
+}
@@ -0,0 +1,216 @@
+package com.alibaba.json.binding;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the class files of {@link BeanWriterGenerator} and {@link BeanReaderGenerator}: a constant pool, each constant
+ * added once, and public methods with a code attribute. The classes are version 49, so their methods need no stack map
+ * frames, and they have no fields and no interfaces.
+ */
+final class ClassFileWriter {
+
+    private final static int                    UTF8          = 1;
+    private final static int                    CLASS         = 7;
+    private final static int                    FIELD_REF     = 9;
+    private final static int                    METHOD_REF    = 10;
+    private final static int                    NAME_AND_TYPE = 12;
+
+    private final static int                    ACC_PUBLIC    = 0x0001;
+    private final static int                    ACC_FINAL     = 0x0010;
+    private final static int                    ACC_SUPER     = 0x0020;
+
+    private final ByteArrayOutputStream         poolBytes     = new ByteArrayOutputStream();
+    private final DataOutputStream              pool          = new DataOutputStream(poolBytes);
+    private final Map<String, Integer>          indexes       = new HashMap<String, Integer>();
+    private int                                 count         = 1;
+
+    private final ByteArrayOutputStream         methodBytes   = new ByteArrayOutputStream();
+    private final DataOutputStream              methods       = new DataOutputStream(methodBytes);
+    private int                                 methodCount;
+
+    int utf8(String value) throws IOException {
+        String key = "U" + value;
+        Integer index = indexes.get(key);
+        if (index != null) {
+            return index;
+        }
+        pool.writeByte(UTF8);
+        pool.writeUTF(value);
+        return add(key);
+    }
+
+    int classInfo(String internalName) throws IOException {
+        String key = "C" + internalName;
+        Integer index = indexes.get(key);
+        if (index != null) {
+            return index;
+        }
+        int name = utf8(internalName);
+        pool.writeByte(CLASS);
+        pool.writeShort(name);
+        return add(key);
+    }
+
+    int fieldRef(String owner, String name, String descriptor) throws IOException {
+        return memberRef(FIELD_REF, owner, name, descriptor);
+    }
+
+    int methodRef(String owner, String name, String descriptor) throws IOException {
+        return memberRef(METHOD_REF, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+        String key = tag + owner + "." + name + descriptor;
+        Integer index = indexes.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        int ownerIndex = classInfo(owner);
+        String nameAndTypeKey = "N" + name + descriptor;
+        Integer nameAndType = indexes.get(nameAndTypeKey);
+        if (nameAndType == null) {
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            pool.writeByte(NAME_AND_TYPE);
+            pool.writeShort(nameIndex);
+            pool.writeShort(descriptorIndex);
+            nameAndType = add(nameAndTypeKey);
+        }
+
+        pool.writeByte(tag);
+        pool.writeShort(ownerIndex);
+        pool.writeShort(nameAndType);
+        return add(key);
+    }
+
+    private int add(String key) {
+        int index = count++;
+        indexes.put(key, index);
+        return index;
+    }
+
+    /**
+     * Adds a public method with no exception table.
+     */
+    void method(String name, String descriptor, int maxStack, int maxLocals, byte[] code) throws IOException {
+        int nameIndex = utf8(name);
+        int descriptorIndex = utf8(descriptor);
+        int codeName = utf8("Code");
+
+        methods.writeShort(ACC_PUBLIC);
+        methods.writeShort(nameIndex);
+        methods.writeShort(descriptorIndex);
+        methods.writeShort(1); // attributes
+        methods.writeShort(codeName);
+        methods.writeInt(12 + code.length);
+        methods.writeShort(maxStack);
+        methods.writeShort(maxLocals);
+        methods.writeInt(code.length);
+        methods.write(code);
+        methods.writeShort(0); // exception table
+        methods.writeShort(0); // attributes
+        methodCount++;
+    }
+
+    /**
+     * Returns the class file of a public final class with the methods added so far.
+     */
+    byte[] toByteArray(String className, String superName) throws IOException {
+        int thisClass = classInfo(className);
+        int superClass = classInfo(superName);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0); // minor version
+        out.writeShort(49); // Java 5, no stack map frames needed
+        out.writeShort(count);
+        poolBytes.writeTo(out);
+        out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+        out.writeShort(thisClass);
+        out.writeShort(superClass);
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+        out.writeShort(methodCount);
+        methodBytes.writeTo(out);
+        out.writeShort(0); // attributes
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Defines a generated class by a loader child of the loader of the bean class.
+     */
+    static Class<?> define(ClassLoader parent, String className, byte[] classFile) {
+        return new GeneratedClassLoader(parent).define(className.replace('/', '.'), classFile);
+    }
+
+    static String internalName(Class<?> clazz) {
+        return clazz.getName().replace('.', '/');
+    }
+
+    static String descriptor(Class<?> clazz) {
+        if (clazz.isArray()) {
+            return clazz.getName().replace('.', '/');
+        }
+        if (clazz == int.class) {
+            return "I";
+        }
+        if (clazz == long.class) {
+            return "J";
+        }
+        if (clazz == boolean.class) {
+            return "Z";
+        }
+        if (clazz == double.class) {
+            return "D";
+        }
+        if (clazz == float.class) {
+            return "F";
+        }
+        if (clazz == short.class) {
+            return "S";
+        }
+        if (clazz == byte.class) {
+            return "B";
+        }
+        if (clazz == char.class) {
+            return "C";
+        }
+        if (clazz == void.class) {
+            return "V";
+        }
+        return "L" + internalName(clazz) + ";";
+    }
+
+    /**
+     * Defines the generated classes under the bean class loader, resolving the classes of this library through the
+     * loader that loaded it, in case the bean loader can't see them.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        GeneratedClassLoader(ClassLoader parent){
+            super(parent != null ? parent : ClassFileWriter.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] classFile) {
+            return defineClass(name, classFile, 0, classFile.length);
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded != null) {
+                return loaded;
+            }
+            if (name.startsWith("com.alibaba.json.")) {
+                return ClassFileWriter.class.getClassLoader().loadClass(name);
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+}
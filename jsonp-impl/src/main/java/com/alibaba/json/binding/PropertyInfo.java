@@ -1,18 +1,41 @@
 package com.alibaba.json.binding;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 
+import javax.json.JsonException;
+
+import com.alibaba.json.JsonTokenizer;
+
 public class PropertyInfo {
 
     private final Class<?> clazz;
     private final Type     type;
     private final String   name;
 
+    private final Method   getter;
+    private final Method   setter;
+    private final Field    field;
+
+    // "name": for JsonTokenizer.matchField
+    private final char[]   fieldName;
+
     public PropertyInfo(Class<?> clazz, Type type, String name){
+        this(clazz, type, name, null, null, null);
+    }
+
+    public PropertyInfo(Class<?> clazz, Type type, String name, Method getter, Method setter, Field field){
         super();
         this.clazz = clazz;
         this.type = type;
         this.name = name;
+        this.getter = getter;
+        this.setter = setter;
+        this.field = field;
+        this.fieldName = JsonTokenizer.compileFieldNames(name)[0];
     }
 
     
@@ -30,5 +53,56 @@ public class PropertyInfo {
         return name;
     }
 
-    
+    public Method getGetter() {
+        return getter;
+    }
+
+    public Method getSetter() {
+        return setter;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public char[] getFieldName() {
+        return fieldName;
+    }
+
+    public boolean isReadable() {
+        return getter != null || field != null;
+    }
+
+    public boolean isWritable() {
+        return setter != null || (field != null && !Modifier.isFinal(field.getModifiers()));
+    }
+
+    public Object get(Object bean) {
+        try {
+            if (getter != null) {
+                return getter.invoke(bean);
+            }
+            return field.get(bean);
+        } catch (IllegalAccessException e) {
+            throw new JsonException("get property error : " + name, e);
+        } catch (InvocationTargetException e) {
+            throw new JsonException("get property error : " + name, e.getTargetException());
+        }
+    }
+
+    public void set(Object bean, Object value) {
+        try {
+            if (setter != null) {
+                setter.invoke(bean, value);
+            } else {
+                field.set(bean, value);
+            }
+        } catch (IllegalAccessException e) {
+            throw new JsonException("set property error : " + name, e);
+        } catch (IllegalArgumentException e) {
+            throw new JsonException("set property error : " + name, e); // a value not of the property type
+        } catch (InvocationTargetException e) {
+            throw new JsonException("set property error : " + name, e.getTargetException());
+        }
+    }
 }
@@ -0,0 +1,33 @@
+package com.alibaba.json.binding;
+
+/**
+ * Reads beans through {@link BeanInfo#newInstance()} and {@link PropertyInfo#set(Object, Object)}, for the classes
+ * whose reader can't be generated.
+ */
+final class ReflectBeanReader extends BeanReader {
+
+    private final PropertyInfo[] properties;
+
+    ReflectBeanReader(BeanInfo beanInfo){
+        super(beanInfo);
+        this.properties = beanInfo.getProperties();
+
+        for (PropertyInfo property : properties) {
+            if (property.getSetter() != null) {
+                property.getSetter().setAccessible(true);
+            } else if (property.isWritable()) {
+                property.getField().setAccessible(true);
+            }
+        }
+    }
+
+    @Override
+    public Object newInstance() {
+        return beanInfo.newInstance();
+    }
+
+    @Override
+    public void set(Object bean, int index, Object value) {
+        properties[index].set(bean, value);
+    }
+}
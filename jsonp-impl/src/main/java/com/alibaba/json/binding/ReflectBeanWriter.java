@@ -0,0 +1,38 @@
+package com.alibaba.json.binding;
+
+import com.alibaba.json.JsonGeneratorImpl;
+
+/**
+ * Writes beans through {@link PropertyInfo#get(Object)}, for the classes whose writer can't be generated.
+ */
+final class ReflectBeanWriter extends BeanWriter {
+
+    private final PropertyInfo[] properties;
+
+    ReflectBeanWriter(BeanInfo beanInfo){
+        this(getReadableProperties(beanInfo));
+    }
+
+    private ReflectBeanWriter(PropertyInfo[] properties){
+        super(getNames(properties));
+        this.properties = properties;
+
+        for (PropertyInfo property : properties) {
+            if (property.getGetter() != null) {
+                property.getGetter().setAccessible(true);
+            } else {
+                property.getField().setAccessible(true);
+            }
+        }
+    }
+
+    @Override
+    public void write(JsonGeneratorImpl out, Object bean) {
+        out.beginObject();
+        for (int i = 0; i < properties.length; ++i) {
+            out.writeKey(names[i]);
+            out.writeAny(properties[i].get(bean));
+        }
+        out.endObject();
+    }
+}
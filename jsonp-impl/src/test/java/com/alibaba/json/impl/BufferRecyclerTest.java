@@ -0,0 +1,84 @@
+package com.alibaba.json.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import javax.json.JsonConfiguration;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.BufferRecycler;
+import com.alibaba.json.JsonGeneratorImpl;
+import com.alibaba.json.JsonParserImpl;
+import com.alibaba.json.JsonProviderImpl;
+import com.alibaba.json.SymbolTable;
+
+public class BufferRecyclerTest extends TestCase {
+
+    public void test_alloc() throws Exception {
+        BufferRecycler recycler = new BufferRecycler();
+
+        char[] chars = recycler.allocChars(BufferRecycler.WRITE_BUFFER, 32, 32);
+        Assert.assertEquals(32, chars.length);
+        recycler.releaseChars(BufferRecycler.WRITE_BUFFER, chars);
+
+        Assert.assertNotSame(chars, recycler.allocChars(BufferRecycler.READ_BUFFER, 32, 32));
+        Assert.assertNotSame(chars, recycler.allocChars(BufferRecycler.WRITE_BUFFER, 64, 64));
+        Assert.assertSame(chars, recycler.allocChars(BufferRecycler.WRITE_BUFFER, 16, 64));
+        Assert.assertNotSame(chars, recycler.allocChars(BufferRecycler.WRITE_BUFFER, 16, 64));
+
+        byte[] bytes = recycler.allocBytes(BufferRecycler.READ_BUFFER, 16, 16);
+        recycler.releaseBytes(BufferRecycler.READ_BUFFER, bytes);
+        Assert.assertSame(bytes, recycler.allocBytes(BufferRecycler.READ_BUFFER, 16, 16));
+    }
+
+    public void test_text_buffer() throws Exception {
+        BufferRecycler recycler = new BufferRecycler(3);
+        JsonProviderImpl provider = new JsonProviderImpl(null, recycler);
+
+        char[] textBuf = new char[128];
+        recycler.releaseChars(BufferRecycler.TEXT_BUFFER, textBuf);
+
+        JsonParserImpl parser = (JsonParserImpl) provider.createParser("{\"name\":\"a\\\"b\"}");
+        Assert.assertEquals("a\"b", parser.parseJsonObject().getString("name"));
+        Assert.assertNotSame(textBuf, recycler.allocChars(BufferRecycler.TEXT_BUFFER, 64, 1024));
+        parser.close();
+        parser.close();
+
+        Assert.assertSame(textBuf, recycler.allocChars(BufferRecycler.TEXT_BUFFER, 64, 1024));
+    }
+
+    public void test_provider() throws Exception {
+        JsonProviderImpl provider = new JsonProviderImpl(new SymbolTable(64), new BufferRecycler());
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonGeneratorImpl.BUFFER_SIZE, 16);
+
+        for (int i = 0; i < 3; ++i) {
+            StringWriter writer = new StringWriter();
+            write(provider.createGenerator(writer, config), i);
+            Assert.assertEquals(expected(i), writer.toString());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            write(provider.createGenerator(out, config), i);
+            Assert.assertEquals(expected(i), new String(out.toByteArray(), "UTF-8"));
+
+            JsonParserImpl parser = (JsonParserImpl) provider.createParser(new ByteArrayInputStream(out.toByteArray()));
+            JsonObject object = parser.parseJsonObject();
+            parser.close();
+            Assert.assertEquals(i, object.getIntValue("id"));
+        }
+    }
+
+    private static void write(JsonGenerator generator, int id) throws Exception {
+        generator.beginObject().writeKeyValue("id", id).writeKeyValue("name", "a long name written in pieces");
+        generator.endObject().close();
+    }
+
+    private static String expected(int id) {
+        return "{\"id\":" + id + ",\"name\":\"a long name written in pieces\"}";
+    }
+}
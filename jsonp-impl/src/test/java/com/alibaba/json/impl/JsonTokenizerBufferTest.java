@@ -0,0 +1,100 @@
+package com.alibaba.json.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import javax.json.JsonConfiguration;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonToken;
+import com.alibaba.json.JsonTokenizer;
+
+public class JsonTokenizerBufferTest extends TestCase {
+
+    private String text;
+
+    protected void setUp() throws Exception {
+        StringBuilder buf = new StringBuilder();
+        buf.append('[');
+        for (int i = 0; i < 10000; ++i) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append("{\"id\":").append(i).append(",\"name\":\"name_").append(i).append("\"}");
+        }
+        buf.append(']');
+        text = buf.toString();
+    }
+
+    public void test_adaptive() throws Exception {
+        CountingReader reader = new CountingReader(new StringReader(text));
+        assertTokens(new JsonTokenizer(reader));
+        int adaptiveReads = reader.reads;
+
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, false);
+        reader = new CountingReader(new StringReader(text));
+        assertTokens(new JsonTokenizer(reader, config));
+
+        Assert.assertTrue(adaptiveReads * 4 < reader.reads);
+    }
+
+    public void test_bufferSize() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, "false");
+
+        CountingReader reader = new CountingReader(new StringReader(text));
+        assertTokens(new JsonTokenizer(reader, config));
+        Assert.assertTrue(reader.reads > text.length() / 16);
+
+        assertTokens(new JsonTokenizer(new ByteArrayInputStream(text.getBytes("UTF-8")), config));
+    }
+
+    private void assertTokens(JsonTokenizer tokenizer) {
+        tokenizer.accept(JsonToken.LBRACKET);
+        for (int i = 0; i < 10000; ++i) {
+            if (i != 0) {
+                tokenizer.accept(JsonToken.COMMA);
+            }
+            tokenizer.accept(JsonToken.LBRACE);
+            tokenizer.accept(JsonToken.STRING);
+            tokenizer.accept(JsonToken.COLON);
+            Assert.assertEquals(i, tokenizer.longValue());
+            tokenizer.accept(JsonToken.INT);
+            tokenizer.accept(JsonToken.COMMA);
+            tokenizer.accept(JsonToken.STRING);
+            tokenizer.accept(JsonToken.COLON);
+            Assert.assertEquals("name_" + i, tokenizer.stringValue());
+            tokenizer.accept(JsonToken.STRING);
+            tokenizer.accept(JsonToken.RBRACE);
+        }
+        tokenizer.accept(JsonToken.RBRACKET);
+        Assert.assertEquals(JsonToken.EOF, tokenizer.token());
+    }
+
+    static class CountingReader extends Reader {
+
+        private final Reader reader;
+        int                  reads;
+
+        CountingReader(Reader reader){
+            this.reader = reader;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            reads++;
+            return reader.read(cbuf, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.alibaba.json.impl;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Random;
+
+import javax.json.JsonConfiguration;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonToken;
+import com.alibaba.json.JsonTokenizer;
+
+public class JsonTokenizerNumberTest extends TestCase {
+
+    public void test_long() throws Exception {
+        assertLong(0, "0");
+        assertLong(-1, "-1");
+        assertLong(Integer.MAX_VALUE, "2147483647");
+        assertLong(Long.MAX_VALUE, "9223372036854775807");
+        assertLong(Long.MIN_VALUE, "-9223372036854775808");
+    }
+
+    public void test_long_overflow() throws Exception {
+        String text = "9223372036854775808";
+        JsonTokenizer tokenizer = new JsonTokenizer(text);
+        Assert.assertEquals(JsonToken.DOUBLE, tokenizer.token());
+        Assert.assertTrue(tokenizer.isBigNumber());
+        Assert.assertEquals(new BigDecimal(text), tokenizer.decimalValue());
+
+        text = "-123456789012345678901234567890";
+        tokenizer = new JsonTokenizer(new StringReader("[" + text + "]"));
+        tokenizer.accept(JsonToken.LBRACKET);
+        Assert.assertEquals(JsonToken.DOUBLE, tokenizer.token());
+        Assert.assertEquals(new BigDecimal(text), tokenizer.decimalValue());
+    }
+
+    public void test_double() throws Exception {
+        String[] texts = { "1.0", "-0.0", "0.1", "3.14159", "1e10", "1E-5", "-2.5e+3", "123456789.123456789",
+                "0.000000000000000000000000001", "1.7976931348623157e308", "4.9e-324", "2.2250738585072014E-308",
+                "9007199254740993", "9007199254740993.0", "0.30000000000000004" };
+        for (String text : texts) {
+            assertDouble(text);
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; ++i) {
+            assertDouble(Double.toString(Double.longBitsToDouble(random.nextLong())).replace("NaN", "0").replace("Infinity", "1"));
+            assertDouble(Double.toString(random.nextDouble() * 1000));
+            assertDouble(Float.toString(random.nextFloat()));
+        }
+    }
+
+    public void test_useBigDecimal() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.USE_BIG_DECIMAL, true);
+
+        JsonTokenizer tokenizer = new JsonTokenizer("0.10000000000000000000001", config);
+        Assert.assertTrue(tokenizer.isBigNumber());
+        Assert.assertEquals(new BigDecimal("0.10000000000000000000001"), tokenizer.decimalValue());
+    }
+
+    public void test_refill() throws Exception {
+        // numbers that cross the 16 char buffer at every offset
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < 100; ++i) {
+            buf.append(i * 1234567L).append(",-").append(i).append(".25e-1,");
+        }
+        buf.append("0]");
+
+        JsonTokenizer tokenizer = new JsonTokenizer(new StringReader(buf.toString()), config);
+        tokenizer.accept(JsonToken.LBRACKET);
+        for (int i = 0; i < 100; ++i) {
+            Assert.assertEquals(i * 1234567L, tokenizer.longValue());
+            tokenizer.accept(JsonToken.INT);
+            tokenizer.accept(JsonToken.COMMA);
+            Assert.assertEquals(Double.parseDouble("-" + i + ".25e-1"), tokenizer.doubleValue());
+            tokenizer.accept(JsonToken.DOUBLE);
+            tokenizer.accept(JsonToken.COMMA);
+        }
+        tokenizer.accept(JsonToken.INT);
+        tokenizer.accept(JsonToken.RBRACKET);
+    }
+
+    private void assertLong(long expected, String text) {
+        JsonTokenizer tokenizer = new JsonTokenizer(text);
+        Assert.assertEquals(JsonToken.INT, tokenizer.token());
+        Assert.assertEquals(expected, tokenizer.longValue());
+
+        tokenizer = new JsonTokenizer(new StringReader(text + " "));
+        Assert.assertEquals(JsonToken.INT, tokenizer.token());
+        Assert.assertEquals(expected, tokenizer.longValue());
+    }
+
+    private void assertDouble(String text) {
+        double expected = Double.parseDouble(text);
+        JsonTokenizer tokenizer = new JsonTokenizer(text);
+        if (tokenizer.token() == JsonToken.INT) {
+            Assert.assertEquals(text, (double) tokenizer.longValue(), expected);
+            return;
+        }
+        Assert.assertEquals(JsonToken.DOUBLE, tokenizer.token());
+        Assert.assertEquals(text, Double.doubleToLongBits(expected), Double.doubleToLongBits(tokenizer.doubleValue()));
+        Assert.assertEquals(text, new BigDecimal(text), tokenizer.decimalValue());
+    }
+}
@@ -0,0 +1,165 @@
+package com.alibaba.json.impl;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import javax.json.JsonConfiguration;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonToken;
+import com.alibaba.json.JsonTokenizer;
+
+public class JsonTokenizerStringTest extends TestCase {
+
+    public void test_tokens() throws Exception {
+        String text = "{\"id\":-12345,\"name\":\"a\\\"b\",\"value\":1.25,\"x\":[true,false,null]}";
+        assertTokens(new JsonTokenizer(text));
+        assertTokens(new JsonTokenizer(new StringReader(text)));
+    }
+
+    public void test_chars_offset() throws Exception {
+        char[] chars = "xx[\"abc\",123]yy".toCharArray();
+        JsonTokenizer tokenizer = new JsonTokenizer(chars, 2, 11);
+
+        tokenizer.accept(JsonToken.LBRACKET);
+        Assert.assertEquals("abc", tokenizer.stringValue());
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COMMA);
+        Assert.assertEquals(123, tokenizer.longValue());
+        tokenizer.accept(JsonToken.INT);
+        tokenizer.accept(JsonToken.RBRACKET);
+        Assert.assertEquals(JsonToken.EOF, tokenizer.token());
+    }
+
+    public void test_number_at_end() throws Exception {
+        JsonTokenizer tokenizer = new JsonTokenizer("9223372036854775807");
+        Assert.assertEquals(JsonToken.INT, tokenizer.token());
+        Assert.assertEquals(Long.MAX_VALUE, tokenizer.longValue());
+        tokenizer.nextToken();
+        Assert.assertEquals(JsonToken.EOF, tokenizer.token());
+    }
+
+    private void assertTokens(JsonTokenizer tokenizer) {
+        tokenizer.accept(JsonToken.LBRACE);
+        Assert.assertEquals("id", tokenizer.stringValue());
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COLON);
+        Assert.assertEquals(-12345, tokenizer.longValue());
+        tokenizer.accept(JsonToken.INT);
+        tokenizer.accept(JsonToken.COMMA);
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COLON);
+        Assert.assertEquals("a\"b", tokenizer.stringValue());
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COMMA);
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COLON);
+        Assert.assertEquals(new BigDecimal("1.25"), tokenizer.decimalValue());
+        Assert.assertEquals(1.25D, tokenizer.doubleValue());
+        tokenizer.accept(JsonToken.DOUBLE);
+        tokenizer.accept(JsonToken.COMMA);
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COLON);
+        tokenizer.accept(JsonToken.LBRACKET);
+        tokenizer.accept(JsonToken.TRUE);
+        tokenizer.accept(JsonToken.COMMA);
+        tokenizer.accept(JsonToken.FALSE);
+        tokenizer.accept(JsonToken.COMMA);
+        tokenizer.accept(JsonToken.NULL);
+        tokenizer.accept(JsonToken.RBRACKET);
+        tokenizer.accept(JsonToken.RBRACE);
+        Assert.assertEquals(JsonToken.EOF, tokenizer.token());
+    }
+
+    private final static String[] VALUES = { "", "a", "abc", "a\"b", "\\", "\n\r\t\b\f/", "中国", "\u0001",
+            "a very long string value that does not fit in the sixteen char buffer", "x\\\\y\\\"z" };
+
+    public void test_escapes() throws Exception {
+        for (String value : VALUES) {
+            String text = "\"" + escape(value) + "\"";
+            Assert.assertEquals(value, new JsonTokenizer(text).stringValue());
+            Assert.assertEquals(value, new JsonTokenizer(new StringReader(text)).stringValue());
+        }
+    }
+
+    public void test_unicode_escape() throws Exception {
+        Assert.assertEquals("中国a", new JsonTokenizer("\"\\u4E2D\\u56fd\\u0061\"").stringValue());
+    }
+
+    public void test_refill() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, false);
+
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < 200; ++i) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append('"').append(escape(VALUES[i % VALUES.length])).append('"');
+        }
+        buf.append(']');
+
+        JsonTokenizer tokenizer = new JsonTokenizer(new StringReader(buf.toString()), config);
+        tokenizer.accept(JsonToken.LBRACKET);
+        for (int i = 0; i < 200; ++i) {
+            if (i != 0) {
+                tokenizer.accept(JsonToken.COMMA);
+            }
+            Assert.assertEquals(VALUES[i % VALUES.length], tokenizer.stringValue());
+            tokenizer.accept(JsonToken.STRING);
+        }
+        tokenizer.accept(JsonToken.RBRACKET);
+    }
+
+    public void test_unterminated() throws Exception {
+        try {
+            new JsonTokenizer(new StringReader("[\"abc")).accept(JsonToken.LBRACKET);
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        fail();
+    }
+
+    private static String escape(String value) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    buf.append("\\\"");
+                    break;
+                case '\\':
+                    buf.append("\\\\");
+                    break;
+                case '\n':
+                    buf.append("\\n");
+                    break;
+                case '\r':
+                    buf.append("\\r");
+                    break;
+                case '\t':
+                    buf.append("\\t");
+                    break;
+                case '\b':
+                    buf.append("\\b");
+                    break;
+                case '\f':
+                    buf.append("\\f");
+                    break;
+                case '/':
+                    buf.append("\\/");
+                    break;
+                default:
+                    if (c < ' ') {
+                        buf.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buf.append(c);
+                    }
+            }
+        }
+        return buf.toString();
+    }
+}
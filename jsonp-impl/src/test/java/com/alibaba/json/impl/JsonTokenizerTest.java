@@ -1,8 +1,14 @@
 package com.alibaba.json.impl;
 
+import java.io.StringReader;
+import java.util.TimeZone;
+
+import javax.json.JsonConfiguration;
+
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
+import com.alibaba.json.DatePattern;
 import com.alibaba.json.JsonToken;
 import com.alibaba.json.JsonTokenizer;
 
@@ -15,4 +21,114 @@ public class JsonTokenizerTest extends TestCase {
         Assert.assertEquals(JsonTokenizer.END, tokenizer.getMatchState());
         Assert.assertEquals(JsonToken.RBRACE, tokenizer.token());
     }
+
+    private final static char[][] NAMES = JsonTokenizer.compileFieldNames("id", "name", "score", "big", "ok", "child",
+                                                                          "v");
+
+    private final static String   TEXT  = "{\"id\":1,\"name\":\"x\", \"score\" : 1.5,\"big\":12345678901,\"ok\":true,"
+                                          + "\"child\":{\"v\":-2}}";
+
+    public void test_match() throws Exception {
+        JsonTokenizer tokenizer = new JsonTokenizer(TEXT);
+
+        Assert.assertEquals(1, tokenizer.matchFieldInt(NAMES[0]));
+        Assert.assertEquals(JsonTokenizer.VALUE, tokenizer.getMatchState());
+        Assert.assertEquals("x", tokenizer.matchFieldString(NAMES[1]));
+        Assert.assertEquals(JsonTokenizer.VALUE, tokenizer.getMatchState());
+
+        // "score" : is not compact, it is read token by token
+        Assert.assertEquals(0D, tokenizer.matchFieldDouble(NAMES[2]));
+        Assert.assertEquals(JsonTokenizer.NOT_MATCH_NAME, tokenizer.getMatchState());
+        tokenizer.accept(JsonToken.COMMA);
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COLON);
+        Assert.assertEquals(1.5D, tokenizer.doubleValue());
+        tokenizer.accept(JsonToken.DOUBLE);
+
+        Assert.assertEquals(0, tokenizer.matchFieldInt(NAMES[3]));
+        Assert.assertEquals(JsonTokenizer.NOT_MATCH, tokenizer.getMatchState());
+        Assert.assertEquals(JsonToken.COMMA, tokenizer.token());
+        Assert.assertEquals(12345678901L, tokenizer.matchFieldLong(NAMES[3]));
+        Assert.assertEquals(true, tokenizer.matchFieldBoolean(NAMES[4]));
+
+        Assert.assertTrue(tokenizer.matchFieldObjectStart(NAMES[5]));
+        Assert.assertEquals(JsonTokenizer.OBJECT, tokenizer.getMatchState());
+        Assert.assertEquals(-2, tokenizer.matchFieldInt(NAMES[6]));
+        Assert.assertEquals(JsonTokenizer.END, tokenizer.getMatchState());
+        tokenizer.accept(JsonToken.RBRACE);
+        tokenizer.accept(JsonToken.RBRACE);
+        Assert.assertEquals(JsonToken.EOF, tokenizer.token());
+    }
+
+    public void test_match_date() throws Exception {
+        char[][] names = JsonTokenizer.compileFieldNames("a", "b", "c", "d");
+        JsonTokenizer tokenizer = new JsonTokenizer("{\"a\":\"2012-12-01T23:22:21.123Z\",\"b\":1354404141123,"
+                                                    + "\"c\":null,\"d\":\"01/12/2012\"}");
+
+        Assert.assertEquals(1354404141123L, tokenizer.matchFieldDate(names[0], null));
+        Assert.assertEquals(JsonTokenizer.VALUE, tokenizer.getMatchState());
+        Assert.assertEquals(1354404141123L, tokenizer.matchFieldDate(names[1], DatePattern.ISO_8601));
+        Assert.assertEquals(JsonTokenizer.VALUE, tokenizer.getMatchState());
+
+        Assert.assertEquals(0, tokenizer.matchFieldDate(names[2], null));
+        Assert.assertEquals(JsonTokenizer.NOT_MATCH, tokenizer.getMatchState());
+        tokenizer.accept(JsonToken.COMMA);
+        tokenizer.accept(JsonToken.STRING);
+        tokenizer.accept(JsonToken.COLON);
+        tokenizer.accept(JsonToken.NULL);
+
+        DatePattern pattern = new DatePattern("dd/MM/yyyy", TimeZone.getTimeZone("UTC"));
+        Assert.assertEquals(1354320000000L, tokenizer.matchFieldDate(names[3], pattern));
+        Assert.assertEquals(JsonTokenizer.END, tokenizer.getMatchState());
+    }
+
+    public void test_match_refill() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, false);
+
+        StringBuilder buf = new StringBuilder("[");
+        for (int i = 0; i < 100; ++i) {
+            buf.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"n").append(i).append("\"}");
+        }
+        buf.append(']');
+
+        JsonTokenizer tokenizer = new JsonTokenizer(new StringReader(buf.toString()), config);
+        tokenizer.accept(JsonToken.LBRACKET);
+        int matches = 0;
+        for (int i = 0; i < 100; ++i) {
+            if (i != 0) {
+                tokenizer.accept(JsonToken.COMMA);
+            }
+
+            Assert.assertEquals(JsonToken.LBRACE, tokenizer.token());
+            int id = tokenizer.matchFieldInt(NAMES[0]);
+            if (tokenizer.getMatchState() == JsonTokenizer.VALUE) {
+                matches++;
+            } else {
+                tokenizer.accept(JsonToken.LBRACE);
+                tokenizer.accept(JsonToken.STRING);
+                tokenizer.accept(JsonToken.COLON);
+                id = (int) tokenizer.longValue();
+                tokenizer.accept(JsonToken.INT);
+            }
+            Assert.assertEquals(i, id);
+
+            Assert.assertEquals(JsonToken.COMMA, tokenizer.token());
+            String name = tokenizer.matchFieldString(NAMES[1]);
+            if (tokenizer.getMatchState() == JsonTokenizer.END) {
+                matches++;
+            } else {
+                tokenizer.accept(JsonToken.COMMA);
+                tokenizer.accept(JsonToken.STRING);
+                tokenizer.accept(JsonToken.COLON);
+                name = tokenizer.stringValue();
+                tokenizer.accept(JsonToken.STRING);
+            }
+            Assert.assertEquals("n" + i, name);
+            tokenizer.accept(JsonToken.RBRACE);
+        }
+        tokenizer.accept(JsonToken.RBRACKET);
+        Assert.assertTrue(matches > 0 && matches < 200);
+    }
 }
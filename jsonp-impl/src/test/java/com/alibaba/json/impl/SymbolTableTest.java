@@ -0,0 +1,76 @@
+package com.alibaba.json.impl;
+
+import java.io.StringReader;
+
+import javax.json.JsonConfiguration;
+import javax.json.JsonObject;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonParserImpl;
+import com.alibaba.json.SymbolTable;
+
+public class SymbolTableTest extends TestCase {
+
+    public void test_keys_shared() throws Exception {
+        SymbolTable symbolTable = new SymbolTable(64);
+        String text = "{\"id\":1,\"name\" : \"name\",\"x\\u0079\":2}";
+
+        JsonObject first = new JsonParserImpl(text, new JsonConfiguration(), symbolTable).parseJsonObject();
+        JsonObject second = new JsonParserImpl(new StringReader(text), new JsonConfiguration(), symbolTable).parseJsonObject();
+
+        Assert.assertEquals(first, second);
+        for (String key : first.keySet()) {
+            Assert.assertSame(key, symbol(second, key));
+        }
+
+        // values are not interned
+        Assert.assertNotSame(first.get("name"), second.get("name"));
+    }
+
+    public void test_bounded() throws Exception {
+        SymbolTable symbolTable = new SymbolTable(1);
+
+        char[] chars = "abcdef".toCharArray();
+        for (int i = 0; i < chars.length; ++i) {
+            symbolTable.addSymbol(chars, i, 1, SymbolTable.hash(chars, i, 1));
+        }
+
+        // the single bucket is full, so later keys are no longer interned
+        Assert.assertSame(symbolTable.addSymbol(chars, 0, 1, SymbolTable.hash(chars, 0, 1)),
+                          symbolTable.addSymbol("a"));
+        Assert.assertNotSame(symbolTable.addSymbol(chars, 5, 1, SymbolTable.hash(chars, 5, 1)),
+                             symbolTable.addSymbol(chars, 5, 1, SymbolTable.hash(chars, 5, 1)));
+    }
+
+    public void test_recovery() throws Exception {
+        SymbolTable symbolTable = new SymbolTable(16);
+        for (int i = 0; i < 10000; ++i) {
+            symbolTable.addSymbol("junk" + i);
+        }
+
+        // a key is interned again at the latest once a full table of keys has been turned away after the junk
+        char[] chars = "{\"id\":1}".toCharArray();
+        int hash = SymbolTable.hash(chars, 2, 2);
+        String symbol = null;
+        for (int i = 0; i <= 16 * SymbolTable.MAX_BUCKET_LENGTH; ++i) {
+            symbol = symbolTable.addSymbol(chars, 2, 2, hash);
+        }
+        Assert.assertEquals("id", symbol);
+        Assert.assertSame(symbol, symbolTable.addSymbol(chars, 2, 2, hash));
+        Assert.assertSame(symbol, symbolTable.addSymbol("id"));
+
+        symbolTable.clear();
+        Assert.assertNotSame(symbol, symbolTable.addSymbol(chars, 2, 2, hash));
+    }
+
+    private static String symbol(JsonObject object, String key) {
+        for (String item : object.keySet()) {
+            if (item.equals(key)) {
+                return item;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,124 @@
+package com.alibaba.jsonp.test;
+
+import java.io.StringWriter;
+
+import javax.json.JsonReader;
+import javax.json.JsonWriter;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonProviderImpl;
+import com.alibaba.jsonp.test.JsonBindingTest.User;
+
+public class JsonBeanWriterTest extends TestCase {
+
+    public void test_write() throws Exception {
+        Item item = new Item();
+        item.id = 3;
+        item.setName("a\"b");
+        item.setPrice(2.5);
+        item.setAvailable(true);
+        item.setCode('x');
+        item.setCount(7L);
+
+        Assert.assertEquals("{\"id\":3,\"name\":\"a\\\"b\",\"price\":2.5,\"available\":true,\"code\":\"x\",\"count\":7}",
+                            write(item));
+    }
+
+    public void test_generated() throws Exception {
+        Assert.assertFalse(JsonProviderImpl.getBeanWriter(Item.class).getClass().getName().startsWith("com.alibaba.json.binding.Reflect"));
+        Assert.assertTrue(JsonProviderImpl.getBeanWriter(Hidden.class).getClass().getName().startsWith("com.alibaba.json.binding.Reflect"));
+    }
+
+    public void test_reflect() throws Exception {
+        Hidden hidden = new Hidden();
+        hidden.setValue(5);
+        Assert.assertEquals("[{\"value\":5},null]", write(new Hidden[] { hidden, null }));
+    }
+
+    public void test_round_trip() throws Exception {
+        String text = "{\"id\":12,\"name\":\"jobs\",\"score\":1.5,\"active\":true,\"amount\":12.30,"
+                      + "\"level\":\"HIGH\",\"tags\":[\"a\",\"b\"],\"codes\":[1,2,3],"
+                      + "\"children\":[{\"id\":13,\"name\":\"x\",\"score\":0.0,\"active\":false,\"amount\":null,"
+                      + "\"level\":null,\"tags\":null,\"codes\":null,\"children\":null,\"attributes\":null,\"extra\":null}],"
+                      + "\"attributes\":null,\"extra\":{\"x\":[1]}}";
+
+        JsonReader reader = new JsonReader(text);
+        User user = reader.read(User.class);
+        reader.close();
+
+        Assert.assertEquals(text, write(user));
+    }
+
+    private static String write(Object value) throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.writeAny(value);
+        writer.close();
+        return out.toString();
+    }
+
+    public static class Item {
+
+        public int     id;
+        private String name;
+        private double price;
+        private boolean available;
+        private char    code;
+        private Long    count;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public void setAvailable(boolean available) {
+            this.available = available;
+        }
+
+        public char getCode() {
+            return code;
+        }
+
+        public void setCode(char code) {
+            this.code = code;
+        }
+
+        public Long getCount() {
+            return count;
+        }
+
+        public void setCount(Long count) {
+            this.count = count;
+        }
+    }
+
+    static class Hidden {
+
+        private int value;
+
+        public int getValue() {
+            return value;
+        }
+
+        public void setValue(int value) {
+            this.value = value;
+        }
+    }
+}
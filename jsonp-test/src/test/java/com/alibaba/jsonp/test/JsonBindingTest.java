@@ -0,0 +1,284 @@
+package com.alibaba.jsonp.test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.JsonConfiguration;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonProviderImpl;
+import com.alibaba.json.JsonTokenizer;
+
+public class JsonBindingTest extends TestCase {
+
+    private final static String TEXT = "{\"id\":12,\"name\":\"jobs\",\"score\":1.5,\"active\":true,\"amount\":12.30,"
+                                       + "\"level\":\"HIGH\",\"tags\":[\"a\",\"b\"],\"codes\":[1,2,3],"
+                                       + "\"children\":[{\"id\":13,\"name\":\"x\"}],\"attributes\":{\"k\":{\"id\":14}},"
+                                       + "\"extra\":{\"x\":[1]},\"unknown\":[{\"a\":1}]}";
+
+    public void test_in_order() throws Exception {
+        assertUser(read(TEXT));
+    }
+
+    public void test_out_of_order() throws Exception {
+        String text = "{ \"unknown\" : null, \"level\":\"HIGH\",\"score\":1.5,\"name\":\"jobs\",\"active\":true,"
+                      + "\"amount\":12.30,\"id\":12,\"tags\":[\"a\",\"b\"],\"codes\":[1,2,3],"
+                      + "\"children\":[{\"name\":\"x\",\"id\":13}],\"attributes\":{\"k\":{\"id\":14}},\"extra\":{\"x\":[1]}}";
+        assertUser(read(text));
+    }
+
+    public void test_stream() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, false);
+
+        JsonReader reader = new JsonReader(new StringReader(TEXT), config);
+        User user = reader.read(User.class);
+        reader.close();
+        assertUser(user);
+    }
+
+    public void test_null() throws Exception {
+        User user = read("{\"id\":null,\"name\":null,\"children\":null}");
+        Assert.assertEquals(0, user.getId());
+        Assert.assertNull(user.getName());
+        Assert.assertNull(user.getChildren());
+    }
+
+    public void test_generated() throws Exception {
+        Assert.assertFalse(JsonProviderImpl.getBeanReader(User.class).getClass().getName().startsWith("com.alibaba.json.binding.Reflect"));
+        Assert.assertFalse(JsonProviderImpl.getBeanReader(Numbers.class).getClass().getName().startsWith("com.alibaba.json.binding.Reflect"));
+        Assert.assertTrue(JsonProviderImpl.getBeanReader(Hidden.class).getClass().getName().startsWith("com.alibaba.json.binding.Reflect"));
+
+        JsonReader reader = new JsonReader("{\"name\":\"x\",\"id\":3}");
+        Hidden hidden = reader.read(Hidden.class);
+        reader.close();
+        Assert.assertEquals(3, hidden.id);
+        Assert.assertEquals("x", hidden.name);
+
+        reader = new JsonReader("{\"c\":\"z\",\"y\":null}");
+        Numbers numbers = reader.read(Numbers.class);
+        reader.close();
+        Assert.assertEquals('z', numbers.c);
+        Assert.assertEquals(0L, numbers.y);
+    }
+
+    public void test_generic() throws Exception {
+        JsonReader reader = new JsonReader("{\"box\":{\"item\":{\"id\":3},\"items\":[{\"id\":4}],\"array\":[{\"id\":5}]},"
+                                           + "\"user\":{\"item\":{\"id\":6}},\"ids\":{\"item\":7}}");
+        Holder holder = reader.read(Holder.class);
+        reader.close();
+        Assert.assertEquals(3, holder.box.item.getId());
+        Assert.assertEquals(4, holder.box.items.get(0).getId());
+        Assert.assertEquals(5, holder.box.array[0].getId());
+        Assert.assertEquals(6, holder.user.item.getId()); // through the generic superclass
+        Assert.assertEquals(Long.valueOf(7), holder.ids.item);
+
+        // a variable with no argument is read as its bound
+        reader = new JsonReader("{\"item\":{\"id\":8}}");
+        UserBound<?> bound = reader.read(UserBound.class);
+        reader.close();
+        Assert.assertEquals(8, bound.item.getId());
+    }
+
+    public void test_range() throws Exception {
+        JsonReader reader = new JsonReader("{\"x\":-2147483648,\"y\":-9223372036854775808,\"s\":32767,\"b\":-128,"
+                                           + "\"f\":3.4E38,\"items\":[2147483647,-1.5]}");
+        Numbers numbers = reader.read(Numbers.class);
+        reader.close();
+        Assert.assertEquals(Integer.MIN_VALUE, numbers.x);
+        Assert.assertEquals(Long.MIN_VALUE, numbers.y);
+        Assert.assertEquals(Short.MAX_VALUE, numbers.s);
+        Assert.assertEquals(Byte.MIN_VALUE, numbers.b);
+        Assert.assertEquals(3.4E38F, numbers.f);
+        Assert.assertEquals(Integer.MAX_VALUE, numbers.items.get(0).intValue());
+        Assert.assertEquals(-1, numbers.items.get(1).intValue());
+
+        assertOutOfRange("{\"x\":3000000000}", "can not cast to int : 3000000000");
+        assertOutOfRange("{\"x\":1E10}", "can not cast to int : 1.0E10");
+        assertOutOfRange("{\"items\":[4294967297]}", "can not cast to int : 4294967297");
+        assertOutOfRange("{\"y\":99999999999999999999}", "can not cast to long : 99999999999999999999");
+        assertOutOfRange("{\"s\":32768}", "can not cast to short : 32768");
+        assertOutOfRange("{\"b\":128}", "can not cast to byte : 128");
+        assertOutOfRange("{\"f\":1E39}", "can not cast to float : 1.0E39");
+    }
+
+    private static void assertOutOfRange(String text, String message) throws Exception {
+        JsonReader reader = new JsonReader(text);
+        try {
+            reader.read(Numbers.class);
+            fail();
+        } catch (JsonException e) {
+            Assert.assertEquals(message, e.getMessage());
+        }
+        reader.close();
+    }
+
+    private static User read(String text) throws Exception {
+        JsonReader reader = new JsonReader(text);
+        User user = reader.read(User.class);
+        reader.close();
+        return user;
+    }
+
+    private static void assertUser(User user) {
+        Assert.assertEquals(12, user.getId());
+        Assert.assertEquals("jobs", user.getName());
+        Assert.assertEquals(1.5D, user.score);
+        Assert.assertTrue(user.isActive());
+        Assert.assertEquals(new BigDecimal("12.30"), user.getAmount());
+        Assert.assertEquals(Level.HIGH, user.getLevel());
+        Assert.assertEquals(2, user.getTags().size());
+        Assert.assertEquals("b", user.getTags().get(1));
+        Assert.assertEquals(3, user.getCodes()[2]);
+        Assert.assertEquals(13, user.getChildren().get(0).getId());
+        Assert.assertEquals("x", user.getChildren().get(0).getName());
+        Assert.assertEquals(14, user.getAttributes().get("k").getId());
+        Assert.assertEquals(1, ((JsonObject) user.getExtra()).getJsonArray("x").getIntValue(0));
+    }
+
+    public static class Numbers {
+
+        public int           x;
+        public long          y;
+        public short         s;
+        public byte          b;
+        public float         f;
+        public char          c;
+        public List<Integer> items;
+    }
+
+    public static class Box<T> {
+
+        public T       item;
+        public List<T> items;
+        public T[]     array;
+    }
+
+    public static class UserBox extends Box<User> {
+    }
+
+    public static class UserBound<T extends User> {
+
+        public T item;
+    }
+
+    public static class Holder {
+
+        public Box<User> box;
+        public UserBox   user;
+        public Box<Long> ids;
+    }
+
+    static class Hidden {
+
+        public int    id;
+        public String name;
+    }
+
+    public static enum Level {
+        LOW, HIGH
+    }
+
+    public static class User {
+
+        private int                 id;
+        private String              name;
+        public double               score;
+        private boolean             active;
+        private BigDecimal          amount;
+        private Level               level;
+        private List<String>        tags;
+        private int[]               codes;
+        private List<User>          children;
+        private Map<String, User>   attributes;
+        private Object              extra;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public void setLevel(Level level) {
+            this.level = level;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+
+        public int[] getCodes() {
+            return codes;
+        }
+
+        public void setCodes(int[] codes) {
+            this.codes = codes;
+        }
+
+        public List<User> getChildren() {
+            return children;
+        }
+
+        public void setChildren(List<User> children) {
+            this.children = children;
+        }
+
+        public Map<String, User> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, User> attributes) {
+            this.attributes = attributes;
+        }
+
+        public Object getExtra() {
+            return extra;
+        }
+
+        public void setExtra(Object extra) {
+            this.extra = extra;
+        }
+    }
+}
@@ -1,16 +1,27 @@
 package com.alibaba.jsonp.test;
 
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
 
 import javax.json.JsonConfiguration;
+import javax.json.JsonReader;
 import javax.json.spi.JsonProvider;
 import javax.json.stream.JsonGenerator;
 
 import junit.framework.Assert;
 import junit.framework.TestCase;
 
+import com.alibaba.json.DatePattern;
+import com.alibaba.json.JsonGeneratorImpl;
+import com.alibaba.json.JsonParserImpl;
+import com.alibaba.json.JsonTokenizer;
+
 public class JsonDateTest extends TestCase {
 
     public void test_date() throws Exception {
@@ -34,4 +45,211 @@ public class JsonDateTest extends TestCase {
         
         Assert.assertEquals("\"2012-12-01 23:22:21\"", jsonString);
     }
+
+    public void test_default() throws Exception {
+        Date date = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2012-12-01 23:22:21");
+        Assert.assertEquals("[\"2012-12-01 23:22:21\",null]", write(new JsonConfiguration(), date, null));
+    }
+
+    public void test_modes() throws Exception {
+        Date date = new Date(1354404141123L);
+
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonGeneratorImpl.DATE_FORMAT, DatePattern.ISO_8601_NAME);
+        Assert.assertEquals("[\"2012-12-01T23:22:21.123Z\",null]", write(config, date, null));
+
+        config.put(JsonGeneratorImpl.DATE_FORMAT, DatePattern.EPOCH_MILLIS);
+        Assert.assertEquals("[1354404141123,null]", write(config, date, null));
+
+        config.put(JsonGeneratorImpl.DATE_FORMAT, new DatePattern("dd/MM/yy h:mm a 'at' Z XXX", TimeZone.getTimeZone("GMT+05:30")));
+        Assert.assertEquals("[\"02/12/12 4:52 AM at +0530 +05:30\",null]", write(config, date, null));
+    }
+
+    public void test_same_as_simple_date_format() throws Exception {
+        String[] patterns = { "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss.SSSZ", "yy/M/d h:m:s.S a", "yyyyMMdd''HHmmss" };
+        String[] timeZones = { "UTC", "America/New_York", "Asia/Kolkata", "Australia/Lord_Howe" };
+
+        Random random = new Random(3);
+        for (String pattern : patterns) {
+            for (String id : timeZones) {
+                TimeZone timeZone = TimeZone.getTimeZone(id);
+                SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+                dateFormat.setTimeZone(timeZone);
+                DatePattern datePattern = new DatePattern(pattern, timeZone);
+
+                for (int i = 0; i < 1000; ++i) {
+                    long millis = (long) (random.nextDouble() * 8000000000000L) - 2000000000000L;
+                    Assert.assertEquals(dateFormat.format(new Date(millis)), datePattern.format(millis));
+                }
+            }
+        }
+    }
+
+    public void test_parse() throws Exception {
+        String[] patterns = { "yyyy-MM-dd HH:mm:ss.SSS", "yyyyMMddHHmmssSSS", "dd/MM/yyyy h:m:s.S a Z", "yyyy-MM-dd'T'HH:mm:ss.SSSXXX" };
+        String[] timeZones = { "UTC", "America/New_York", "Asia/Kolkata", "Australia/Lord_Howe" };
+
+        Random random = new Random(5);
+        for (String pattern : patterns) {
+            for (String id : timeZones) {
+                TimeZone timeZone = TimeZone.getTimeZone(id);
+                SimpleDateFormat dateFormat = new SimpleDateFormat(pattern);
+                dateFormat.setTimeZone(timeZone);
+                DatePattern datePattern = new DatePattern(pattern, timeZone);
+
+                for (int i = 0; i < 1000; ++i) {
+                    long millis = (long) (random.nextDouble() * 8000000000000L) - 2000000000000L;
+                    String text = datePattern.format(millis);
+                    Assert.assertEquals(text, dateFormat.parse(text).getTime(), datePattern.parse(text));
+                }
+            }
+        }
+
+        Assert.assertEquals(1354320000000L, DatePattern.ISO_8601.parse("2012-12-01"));
+        Assert.assertEquals(1354404120000L, DatePattern.ISO_8601.parse("2012-12-01T23:22"));
+        Assert.assertEquals(1354404141000L, DatePattern.ISO_8601.parse("2012-12-01T23:22:21Z"));
+        Assert.assertEquals(1354375341100L, DatePattern.ISO_8601.parse("2012-12-01T23:22:21.1+08:00"));
+        Assert.assertEquals(1354423941123L, DatePattern.ISO_8601.parse("2012-12-01T23:22:21.123456-0530"));
+        Assert.assertEquals(Long.MIN_VALUE, DatePattern.EPOCH_MILLIS.parse("-9223372036854775808"));
+
+        String[] illegals = { "2012-13-01T00:00Z", "2012-12-01T24:00Z", "2012-12-01T23:22+8", "2012-12-01 23:22" };
+        for (String text : illegals) {
+            try {
+                DatePattern.ISO_8601.parse(text);
+                fail(text);
+            } catch (IllegalArgumentException e) {
+                Assert.assertEquals("illegal date : " + text, e.getMessage());
+            }
+        }
+        try {
+            DatePattern.EPOCH_MILLIS.parse("9223372036854775808");
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    public void test_parse_two_digit_year() throws Exception {
+        String[] timeZones = { "UTC", "America/New_York", "Asia/Kolkata", "Pacific/Kiritimati" };
+
+        for (String id : timeZones) {
+            TimeZone timeZone = TimeZone.getTimeZone(id);
+            SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yy");
+            dateFormat.setTimeZone(timeZone);
+            DatePattern datePattern = new DatePattern("dd/MM/yy", timeZone);
+
+            // the dates around the instant 80 years ago, skipping its own day: read at midnight, it is a race with now
+            for (int days = -400; days <= 400; ++days) {
+                if (days == 0) {
+                    continue;
+                }
+                Calendar calendar = Calendar.getInstance(timeZone);
+                calendar.add(Calendar.YEAR, -80);
+                calendar.add(Calendar.DAY_OF_MONTH, days);
+                String text = datePattern.format(calendar.getTimeInMillis());
+                Assert.assertEquals(id + " " + text, dateFormat.parse(text).getTime(), datePattern.parse(text));
+            }
+        }
+    }
+
+    public void test_read() throws Exception {
+        long millis = 1354404141123L;
+        long seconds = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2012-12-01 23:22:21").getTime();
+
+        String text = "{\"id\":1,\"time\":\"2012-12-01 23:22:21\",\"created\":1354404141123,"
+                      + "\"calendar\":\"2012-12-01T23:22:21.123Z\"}";
+        assertEvent(read(text, new JsonConfiguration()), seconds, millis, millis);
+
+        text = "{\"calendar\":\"2012-12-01T23:22:21.123Z\",\"time\":1354404141123,\"id\":1,"
+               + "\"created\":\"2012-12-01 23:22:21\"}";
+        assertEvent(read(text, new JsonConfiguration()), millis, seconds, millis);
+
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonParserImpl.DATE_FORMAT, new DatePattern("dd/MM/yyyy HH:mm:ss.SSS", TimeZone.getTimeZone("GMT+05:30")));
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, false);
+        text = "{\"id\":1,\"time\":\"02/12/2012 04:52:21.123\",\"created\":null,\"calendar\":1354404141123}";
+        Event event = read(text, config);
+        Assert.assertEquals(millis, event.getTime().getTime());
+        Assert.assertNull(event.getCreated());
+        Assert.assertEquals(millis, event.getCalendar().getTimeInMillis());
+
+        config = new JsonConfiguration();
+        config.put(JsonParserImpl.DATE_FORMAT, new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+        text = "{\"id\":1,\"time\":\"2012-12-01 23:22:21\",\"created\":\"2012-12-01 23:22:21\",\"calendar\":1354404141123}";
+        assertEvent(read(text, config), seconds, seconds, millis);
+
+        try {
+            read("{\"id\":1,\"time\":\"2012/12/01\"}", new JsonConfiguration());
+            fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("illegal date : 2012/12/01", e.getMessage());
+        }
+    }
+
+    private static Event read(String text, JsonConfiguration config) throws Exception {
+        JsonReader reader = new JsonReader(new StringReader(text), config);
+        Event event = reader.read(Event.class);
+        reader.close();
+        return event;
+    }
+
+    private static void assertEvent(Event event, long time, long created, long calendar) {
+        Assert.assertEquals(1, event.getId());
+        Assert.assertEquals(time, event.getTime().getTime());
+        Assert.assertEquals(Timestamp.class, event.getCreated().getClass());
+        Assert.assertEquals(created, event.getCreated().getTime());
+        Assert.assertEquals(calendar, event.getCalendar().getTimeInMillis());
+    }
+
+    public static class Event {
+
+        private int       id;
+        private Date      time;
+        private Timestamp created;
+        private Calendar  calendar;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public Date getTime() {
+            return time;
+        }
+
+        public void setTime(Date time) {
+            this.time = time;
+        }
+
+        public Timestamp getCreated() {
+            return created;
+        }
+
+        public void setCreated(Timestamp created) {
+            this.created = created;
+        }
+
+        public Calendar getCalendar() {
+            return calendar;
+        }
+
+        public void setCalendar(Calendar calendar) {
+            this.calendar = calendar;
+        }
+    }
+
+    private static String write(JsonConfiguration config, Date... dates) throws Exception {
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = JsonProvider.provider().createGenerator(writer, config);
+        generator.beginArray();
+        for (Date date : dates) {
+            generator.writeDate(date);
+        }
+        generator.endArray();
+        generator.close();
+        return writer.toString();
+    }
 }
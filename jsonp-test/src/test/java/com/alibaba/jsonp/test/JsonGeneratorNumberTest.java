@@ -0,0 +1,126 @@
+package com.alibaba.jsonp.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Random;
+
+import javax.json.JsonConfiguration;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonGeneratorImpl;
+
+public class JsonGeneratorNumberTest extends TestCase {
+
+    public void test_double() throws Exception {
+        Assert.assertEquals("[0.0,-0.0,1.0,0.1,-2.5,100.0,1234567.0,1.0E7,0.001,1.0E-4,2.0E23,8.41E21,4.9E-324,"
+                                    + "1.7976931348623157E308,2.2250738585072014E-308,null,null]",
+                            writeDoubles(0.0, -0.0, 1.0, 0.1, -2.5, 100.0, 1234567.0, 1e7, 0.001, 1e-4, 2e23, 8.41e21,
+                                         Double.MIN_VALUE, Double.MAX_VALUE, Double.MIN_NORMAL, Double.NaN,
+                                         Double.POSITIVE_INFINITY));
+    }
+
+    public void test_float() throws Exception {
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = JsonProvider.provider().createGenerator(writer);
+        generator.beginArray();
+        float[] values = { 0.1f, 1.0E-5f, 3.4028235E38f, 1.4E-45f, 16777216f, -7.25f };
+        for (float value : values) {
+            generator.writeAny(value);
+        }
+        generator.endArray().close();
+
+        Assert.assertEquals("[0.1,1.0E-5,3.4028235E38,1.4E-45,1.6777216E7,-7.25]", writer.toString());
+    }
+
+    public void test_big_decimal() throws Exception {
+        String[] values = { "12.30", "-0.05", "100", "1E+3", "1.5E-7", "0.0000001", "0E-8", "-123456789012345678.9",
+                "98765432109876543210.5" };
+
+        Assert.assertEquals("[12.30,-0.05,100,1E+3,1.5E-7,1E-7,0E-8,-123456789012345678.9,98765432109876543210.5]",
+                            writeDecimals(false, values));
+        Assert.assertEquals("[12.30,-0.05,100,1000,0.00000015,0.0000001,0.00000000,-123456789012345678.9,"
+                                    + "98765432109876543210.5]", writeDecimals(true, values));
+    }
+
+    public void test_round_trip() throws Exception {
+        Random random = new Random(7);
+        double[] values = new double[2000];
+        for (int i = 0; i < values.length; ++i) {
+            double value;
+            do {
+                value = Double.longBitsToDouble(random.nextLong());
+            } while (Double.isNaN(value) || Double.isInfinite(value));
+            values[i] = value;
+        }
+
+        String text = writeDoubles(values);
+        String[] items = text.substring(1, text.length() - 1).split(",");
+        for (int i = 0; i < values.length; ++i) {
+            Assert.assertEquals(values[i], Double.parseDouble(items[i]));
+            Assert.assertTrue(items[i].length() <= Double.toString(values[i]).length());
+        }
+    }
+
+    public void test_small_buffer() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonGeneratorImpl.BUFFER_SIZE, 16);
+
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator[] generators = { JsonProvider.provider().createGenerator(writer, config),
+                JsonProvider.provider().createGenerator(out, config) };
+        for (JsonGenerator generator : generators) {
+            generator.beginArray();
+            generator.writeAny(-2.2250738585072014E-308);
+            generator.writeAny(-1.7976931348623157E308);
+            generator.writeAny(-1.1754944E-38f);
+            generator.writeAny(-1234567890123456789L);
+            generator.writeAny(Long.MIN_VALUE);
+            generator.endArray().close();
+        }
+
+        String expected = "[-2.2250738585072014E-308,-1.7976931348623157E308,-1.1754944E-38,-1234567890123456789,"
+                          + "-9223372036854775808]";
+        Assert.assertEquals(expected, writer.toString());
+        Assert.assertEquals(expected, new String(out.toByteArray(), "UTF-8"));
+    }
+
+    private static String writeDecimals(boolean plain, String... values) throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonGeneratorImpl.BIG_DECIMAL_AS_PLAIN, plain);
+
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = JsonProvider.provider().createGenerator(writer, config);
+        generator.beginArray();
+        for (String value : values) {
+            generator.writeBigDecimal(new BigDecimal(value));
+        }
+        generator.endArray().close();
+        return writer.toString();
+    }
+
+    private static String writeDoubles(double... values) throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put("writeBufferSize", 32);
+
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator[] generators = { JsonProvider.provider().createGenerator(writer, config),
+                JsonProvider.provider().createGenerator(out, config) };
+        for (JsonGenerator generator : generators) {
+            generator.beginArray();
+            for (double value : values) {
+                generator.writeAny(value);
+            }
+            generator.endArray().close();
+        }
+
+        Assert.assertEquals(writer.toString(), new String(out.toByteArray(), "UTF-8"));
+        return writer.toString();
+    }
+}
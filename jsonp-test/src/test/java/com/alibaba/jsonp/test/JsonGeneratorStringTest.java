@@ -0,0 +1,54 @@
+package com.alibaba.jsonp.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+
+import javax.json.JsonConfiguration;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonGeneratorImpl;
+
+public class JsonGeneratorStringTest extends TestCase {
+
+    public void test_escape() throws Exception {
+        Assert.assertEquals("[\"a\\\"b\\\\c\\nd\\re\\tf\\bg\\fh\\u0001i\\u001fj/\\u0080é\\u2028中\",\"\",null]",
+                            write("a\"b\\c\nd\re\tf\bg\fh\u0001i\u001fj/\u0080é 中", "", null));
+    }
+
+    public void test_runs() throws Exception {
+        StringBuilder value = new StringBuilder();
+        StringBuilder expected = new StringBuilder("[\"");
+        for (int i = 0; i < 500; ++i) {
+            value.append("some text to copy in bulk ").append(i).append('\n');
+            expected.append("some text to copy in bulk ").append(i).append("\\n");
+        }
+        expected.append("\"]");
+
+        Assert.assertEquals(expected.toString(), write(value.toString()));
+    }
+
+    private static String write(String... values) throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonGeneratorImpl.BUFFER_SIZE, 64);
+
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator[] generators = { JsonProvider.provider().createGenerator(writer, config),
+                JsonProvider.provider().createGenerator(out, config) };
+        for (JsonGenerator generator : generators) {
+            generator.beginArray();
+            for (String value : values) {
+                generator.writeString(value);
+            }
+            generator.endArray();
+            generator.close();
+        }
+
+        Assert.assertEquals(writer.toString(), new String(out.toByteArray(), "UTF-8"));
+        return writer.toString();
+    }
+}
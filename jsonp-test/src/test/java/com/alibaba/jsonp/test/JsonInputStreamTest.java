@@ -0,0 +1,84 @@
+package com.alibaba.jsonp.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+public class JsonInputStreamTest extends TestCase {
+
+    public void test_utf8() throws Exception {
+        String text = "{\"id\":123,\"name\":\"jitu\",\"country\":\"中国\",\"x\":\"é😀\"}";
+
+        JsonReader jsonReader = new JsonReader(new ByteArrayInputStream(text.getBytes("UTF-8")));
+        JsonObject jsonObject = jsonReader.readJsonObject();
+        jsonReader.close();
+
+        Assert.assertEquals(4, jsonObject.size());
+        Assert.assertEquals(123, jsonObject.get("id"));
+        Assert.assertEquals("jitu", jsonObject.get("name"));
+        Assert.assertEquals("中国", jsonObject.get("country"));
+        Assert.assertEquals("é😀", jsonObject.get("x"));
+    }
+
+    public void test_utf8_bom() throws Exception {
+        byte[] json = "[\"中\"]".getBytes("UTF-8");
+        byte[] bytes = new byte[json.length + 3];
+        bytes[0] = (byte) 0xEF;
+        bytes[1] = (byte) 0xBB;
+        bytes[2] = (byte) 0xBF;
+        System.arraycopy(json, 0, bytes, 3, json.length);
+
+        JsonReader jsonReader = new JsonReader(new ByteArrayInputStream(bytes));
+        JsonArray array = jsonReader.readJsonArray();
+        jsonReader.close();
+
+        Assert.assertEquals(1, array.size());
+        Assert.assertEquals("中", array.get(0));
+    }
+
+    public void test_utf16() throws Exception {
+        String text = "{\"name\":\"中国\"}";
+
+        JsonReader jsonReader = new JsonReader(new ByteArrayInputStream(text.getBytes("UTF-16LE")));
+        JsonObject jsonObject = jsonReader.readJsonObject();
+        jsonReader.close();
+
+        Assert.assertEquals("中国", jsonObject.get("name"));
+    }
+
+    public void test_large() throws Exception {
+        StringBuilder buf = new StringBuilder();
+        buf.append('[');
+        for (int i = 0; i < 1000; ++i) {
+            if (i != 0) {
+                buf.append(',');
+            }
+            buf.append("\"aé中😀").append(i).append('"');
+        }
+        buf.append(']');
+
+        // a stream that returns a few bytes at a time, so that sequences are split across reads
+        final byte[] bytes = buf.toString().getBytes("UTF-8");
+        InputStream in = new ByteArrayInputStream(bytes) {
+
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+
+        JsonReader jsonReader = new JsonReader(in);
+        JsonArray array = jsonReader.readJsonArray();
+        jsonReader.close();
+
+        Assert.assertEquals(1000, array.size());
+        for (int i = 0; i < 1000; ++i) {
+            Assert.assertEquals("aé中😀" + i, array.get(i));
+        }
+    }
+}
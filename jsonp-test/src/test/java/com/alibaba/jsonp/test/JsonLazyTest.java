@@ -0,0 +1,56 @@
+package com.alibaba.jsonp.test;
+
+import javax.json.JsonArray;
+import javax.json.JsonConfiguration;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonParserImpl;
+
+public class JsonLazyTest extends TestCase {
+
+    private final static String TEXT = "{\"id\":1,\"user\":{\"name\":\"a\\\"b\",\"tags\":[\"x\",\"]\"]},\"items\":[{\"a\":1},{\"b\":[2,3]}]}";
+
+    public void test_get() throws Exception {
+        JsonObject object = readLazy(TEXT);
+
+        Assert.assertEquals(1, object.getIntValue("id"));
+        JsonObject user = object.getJsonObject("user");
+        Assert.assertEquals("a\"b", user.getString("name"));
+        Assert.assertSame(user, object.getJsonObject("user"));
+
+        JsonArray tags = user.getJsonArray("tags");
+        Assert.assertEquals(2, tags.size());
+        Assert.assertEquals("]", tags.getString(1));
+
+        JsonArray items = object.getJsonArray("items");
+        Assert.assertEquals(3, items.getJsonObject(1).getJsonArray("b").getIntValue(1));
+    }
+
+    public void test_write_untouched() throws Exception {
+        JsonObject object = readLazy(TEXT);
+        Assert.assertEquals(1, object.getIntValue("id"));
+        Assert.assertEquals(TEXT, object.toString());
+    }
+
+    public void test_equals() throws Exception {
+        JsonReader reader = new JsonReader(TEXT);
+        JsonObject object = reader.readJsonObject();
+        reader.close();
+
+        Assert.assertEquals(object, readLazy(TEXT));
+    }
+
+    private static JsonObject readLazy(String text) throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonParserImpl.LAZY, true);
+
+        JsonReader reader = new JsonReader(text, config);
+        JsonObject object = reader.readJsonObject();
+        reader.close();
+        return object;
+    }
+}
@@ -0,0 +1,208 @@
+package com.alibaba.jsonp.test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import javax.json.JsonConfiguration;
+import javax.json.JsonObject;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonParserImpl;
+import com.alibaba.json.JsonTokenizer;
+
+public class JsonParserEventTest extends TestCase {
+
+    private final static String TEXT = "{\"id\" :  123,\"name\"   :\"jobs\",\"esc\":\"a\\\"b\",\"big\":12345678901,"
+                                       + "\"rate\":1.50,\"flags\":[true,false,null],\"empty\":\"\"}";
+
+    public void test_events() throws Exception {
+        assertEvents(JsonProvider.provider().createParser(TEXT));
+
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, false);
+        for (int i = 0; i < 16; ++i) {
+            // every split of the text over the refills
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < i; ++j) {
+                text.append(' ');
+            }
+            assertEvents(JsonProvider.provider().createParser(new StringReader(text.append(TEXT).toString()), config));
+        }
+    }
+
+    public void test_scalar() throws Exception {
+        JsonParser parser = JsonProvider.provider().createParser("\"abc\"");
+        Assert.assertTrue(parser.hasNext());
+        Assert.assertEquals(Event.VALUE_STRING, parser.next());
+        Assert.assertEquals("abc", parser.getString());
+        Assert.assertFalse(parser.hasNext());
+        parser.close();
+
+        parser = JsonProvider.provider().createParser("-12");
+        Assert.assertEquals(Event.VALUE_INTEGER, parser.next());
+        Assert.assertEquals(-12, parser.getIntValue());
+        Assert.assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    public void test_decimal() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.USE_BIG_DECIMAL, true);
+        JsonParser parser = JsonProvider.provider().createParser("[0.1,-2e3,123456789012345678901234,7]", config);
+
+        Assert.assertEquals(Event.START_ARRAY, parser.next());
+        Assert.assertEquals(Event.VALUE_DECIMAL, parser.next());
+        Assert.assertEquals(0.1D, parser.getDoubleValue());
+        Assert.assertEquals(Event.VALUE_DECIMAL, parser.next());
+        Assert.assertEquals(-2000D, parser.getDoubleValue());
+        Assert.assertFalse(parser.isIntegralNumber());
+
+        Assert.assertEquals(Event.VALUE_INTEGER, parser.next());
+        Assert.assertTrue(parser.isIntegralNumber());
+        Assert.assertEquals(1.2345678901234568E23, parser.getDoubleValue());
+        Assert.assertEquals(new BigDecimal("123456789012345678901234"), parser.getBigDecimalValue());
+
+        Assert.assertEquals(Event.VALUE_INTEGER, parser.next());
+        Assert.assertEquals(7D, parser.getDoubleValue());
+        Assert.assertEquals(Event.END_ARRAY, parser.next());
+        Assert.assertFalse(parser.isIntegralNumber());
+        parser.close();
+    }
+
+    public void test_parse_after_key() throws Exception {
+        JsonParser parser = JsonProvider.provider().createParser("{\"a\":{\"x\":1},\"b\":2}");
+        Assert.assertEquals(Event.START_OBJECT, parser.next());
+        Assert.assertEquals(Event.KEY_NAME, parser.next());
+        Assert.assertEquals(1, ((JsonObject) parser.parseAny()).getIntValue("x"));
+        Assert.assertEquals(Event.KEY_NAME, parser.next());
+        Assert.assertEquals("b", parser.getString());
+        Assert.assertEquals(Event.VALUE_INTEGER, parser.next());
+        Assert.assertEquals(2, parser.getIntValue());
+        Assert.assertEquals(Event.END_OBJECT, parser.next());
+        parser.close();
+    }
+
+    public void test_depth() throws Exception {
+        String text = nested(40);
+        JsonParser parser = JsonProvider.provider().createParser(text);
+        for (int i = 0; i < 40; ++i) {
+            Assert.assertEquals(Event.START_ARRAY, parser.next());
+            Assert.assertEquals(i, ((JsonParserImpl) parser).getDepth());
+        }
+        for (int i = 39; i >= 0; --i) {
+            Assert.assertEquals(Event.END_ARRAY, parser.next());
+            Assert.assertEquals(i, ((JsonParserImpl) parser).getDepth());
+        }
+        Assert.assertFalse(parser.hasNext());
+        parser.close();
+
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonParserImpl.MAX_DEPTH, 8);
+        Assert.assertNotNull(JsonProvider.provider().createParser(nested(8), config).parseAny());
+
+        parser = JsonProvider.provider().createParser(nested(9), config);
+        try {
+            while (parser.hasNext()) {
+                parser.next();
+            }
+            fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("illegal depth, max depth : 8", e.getMessage());
+        }
+
+        // two levels pulled as events, the rest read whole
+        parser = JsonProvider.provider().createParser(nested(9), config);
+        parser.next();
+        parser.next();
+        try {
+            parser.parseAny();
+            fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("illegal depth, max depth : 8", e.getMessage());
+        }
+
+        // rejected before the stack is exhausted
+        try {
+            JsonProvider.provider().createParser(nested(100000)).parseAny();
+            fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("illegal depth, max depth : 1000", e.getMessage());
+        }
+    }
+
+    private static String nested(int depth) {
+        StringBuilder buf = new StringBuilder();
+        for (int i = 0; i < depth; ++i) {
+            buf.append('[');
+        }
+        for (int i = 0; i < depth; ++i) {
+            buf.append(']');
+        }
+        return buf.toString();
+    }
+
+    private static void assertEvents(JsonParser parser) throws Exception {
+        Assert.assertEquals(Event.START_OBJECT, parser.next());
+
+        assertKey(parser, "id");
+        Assert.assertEquals(Event.VALUE_INTEGER, parser.next());
+        Assert.assertEquals(123, parser.getIntValue());
+        Assert.assertTrue(parser.isIntegralNumber());
+        assertText(parser, "123");
+
+        assertKey(parser, "name");
+        Assert.assertEquals(Event.VALUE_STRING, parser.next());
+        assertText(parser, "jobs");
+
+        assertKey(parser, "esc");
+        Assert.assertEquals(Event.VALUE_STRING, parser.next());
+        assertText(parser, "a\"b");
+        Assert.assertEquals("a\"b", parser.getString());
+
+        assertKey(parser, "big");
+        Assert.assertEquals(Event.VALUE_INTEGER, parser.next());
+        Assert.assertEquals(12345678901L, parser.getLongValue());
+
+        assertKey(parser, "rate");
+        Assert.assertEquals(Event.VALUE_DECIMAL, parser.next());
+        Assert.assertFalse(parser.isIntegralNumber());
+        Assert.assertEquals(1.5D, parser.getDoubleValue());
+        Assert.assertEquals(new BigDecimal("1.50"), parser.getBigDecimalValue());
+        Assert.assertEquals("1.50", parser.getString());
+
+        assertKey(parser, "flags");
+        Assert.assertEquals(Event.START_ARRAY, parser.next());
+        Assert.assertEquals(Event.VALUE_TRUE, parser.next());
+        Assert.assertEquals("true", parser.getString());
+        Assert.assertNull(parser.getTextCharacters());
+        Assert.assertEquals(Event.VALUE_FALSE, parser.next());
+        Assert.assertEquals(Event.VALUE_NULL, parser.next());
+        Assert.assertNull(parser.getString());
+        Assert.assertEquals(0, parser.getLongValue());
+        Assert.assertEquals(Event.END_ARRAY, parser.next());
+
+        assertKey(parser, "empty");
+        Assert.assertEquals(Event.VALUE_STRING, parser.next());
+        assertText(parser, "");
+
+        Assert.assertEquals(Event.END_OBJECT, parser.next());
+        Assert.assertFalse(parser.hasNext());
+        parser.close();
+    }
+
+    private static void assertKey(JsonParser parser, String key) {
+        Assert.assertTrue(parser.hasNext());
+        Assert.assertEquals(Event.KEY_NAME, parser.next());
+        assertText(parser, key);
+    }
+
+    private static void assertText(JsonParser parser, String text) {
+        Assert.assertEquals(text, new String(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.alibaba.jsonp.test;
+
+import java.io.StringReader;
+import java.util.Iterator;
+
+import javax.json.JsonConfiguration;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonTokenizer;
+
+public class JsonParserSkipTest extends TestCase {
+
+    private final static String TEXT = "{\"a\":{\"x\":[1,\"}]\\\"\",{}]}, \"b\":2,\"c\":[[1],[2]],\"d\":\"v\"}";
+
+    public void test_skip() throws Exception {
+        assertSkip(JsonProvider.provider().createParser(TEXT));
+
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonTokenizer.BUFFER_SIZE, 16);
+        config.put(JsonTokenizer.ADAPTIVE_BUFFER, false);
+        assertSkip(JsonProvider.provider().createParser(new StringReader(TEXT), config));
+    }
+
+    public void test_skip_member() throws Exception {
+        JsonParser parser = JsonProvider.provider().createParser(TEXT);
+        Iterator<Event> events = parser.iterator();
+
+        Assert.assertEquals(Event.START_OBJECT, events.next());
+        parser.skipValue();
+        Assert.assertEquals(Event.KEY_NAME, events.next());
+        Assert.assertEquals("b", parser.getString());
+        parser.close();
+    }
+
+    private void assertSkip(JsonParser parser) throws Exception {
+        Iterator<Event> events = parser.iterator();
+
+        Assert.assertEquals(Event.START_OBJECT, events.next());
+        Assert.assertEquals(Event.KEY_NAME, events.next());
+        Assert.assertEquals("a", parser.getString());
+        parser.skipValue();
+
+        Assert.assertEquals(Event.KEY_NAME, events.next());
+        Assert.assertEquals("b", parser.getString());
+        Assert.assertEquals(Event.VALUE_INTEGER, events.next());
+        Assert.assertEquals(2, parser.getLongValue());
+
+        Assert.assertEquals(Event.KEY_NAME, events.next());
+        Assert.assertEquals(Event.START_ARRAY, events.next());
+        parser.skipChildren();
+
+        Assert.assertEquals(Event.KEY_NAME, events.next());
+        Assert.assertEquals("d", parser.getString());
+        Assert.assertEquals(Event.VALUE_STRING, events.next());
+        Assert.assertEquals("v", parser.getString());
+        Assert.assertEquals(Event.END_OBJECT, events.next());
+        Assert.assertFalse(events.hasNext());
+        parser.close();
+    }
+}
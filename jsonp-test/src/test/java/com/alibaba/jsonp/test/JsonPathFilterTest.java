@@ -0,0 +1,57 @@
+package com.alibaba.jsonp.test;
+
+import java.util.Arrays;
+
+import javax.json.JsonConfiguration;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonParserImpl;
+import com.alibaba.json.JsonPathFilter;
+
+public class JsonPathFilterTest extends TestCase {
+
+    private final static String TEXT = "{\"id\":1,\"a/b\":2,\"user\":{\"name\":\"x\",\"age\":3,\"tags\":[\"t\"]},"
+                                       + "\"items\":[{\"id\":4,\"v\":[5]},{\"id\":6,\"v\":{}}],\"rest\":{\"deep\":[[[]]]}}";
+
+    public void test_pointer() throws Exception {
+        JsonObject object = read("/id", "/a~1b", "/user/name", "/items/1", "/id/x");
+        Assert.assertEquals("{\"id\":1,\"a/b\":2,\"user\":{\"name\":\"x\"},\"items\":[{\"id\":6,\"v\":{}}]}",
+                            object.toString());
+    }
+
+    public void test_path() throws Exception {
+        JsonObject object = read("$.user['age']", "$.items[*].id", "$.rest");
+        Assert.assertEquals("{\"user\":{\"age\":3},\"items\":[{\"id\":4},{\"id\":6}],\"rest\":{\"deep\":[[[]]]}}",
+                            object.toString());
+    }
+
+    public void test_index() throws Exception {
+        Assert.assertEquals("{\"items\":[{\"v\":[5]},{\"id\":6,\"v\":{}}]}",
+                            read("/items/1/id", "$.items[*].v").toString());
+        Assert.assertEquals("{\"items\":[{\"id\":4}]}", read("/items/0/id", "/items/01", "/items/2").toString());
+    }
+
+    public void test_compiled() throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonParserImpl.INCLUDE_PATHS, JsonPathFilter.compile("$.*.name", "/user/age"));
+
+        JsonReader reader = new JsonReader(TEXT, config);
+        JsonObject object = reader.readJsonObject();
+        reader.close();
+        Assert.assertEquals("{\"user\":{\"name\":\"x\",\"age\":3},\"items\":[],\"rest\":{}}", object.toString());
+    }
+
+    private static JsonObject read(String... paths) throws Exception {
+        JsonConfiguration config = new JsonConfiguration();
+        config.put(JsonParserImpl.INCLUDE_PATHS, Arrays.asList(paths));
+
+        JsonReader reader = new JsonReader(TEXT, config);
+        JsonObject object = reader.readJsonObject();
+        reader.close();
+        return object;
+    }
+}
@@ -0,0 +1,42 @@
+package com.alibaba.jsonp.test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import javax.json.JsonConfiguration;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonGeneratorImpl;
+import com.alibaba.json.SerializedKey;
+
+public class JsonSerializedKeyTest extends TestCase {
+
+    public void test_write() throws Exception {
+        SerializedKey id = new SerializedKey("id");
+        SerializedKey name = new SerializedKey("na\"meé");
+
+        StringWriter out = new StringWriter();
+        JsonGeneratorImpl generator = new JsonGeneratorImpl(out, new JsonConfiguration());
+        generator.beginArray();
+        for (int i = 0; i < 2; ++i) {
+            generator.beginObject();
+            generator.writeKey(id).writeInt(i);
+            generator.writeKeyValue(name, "x");
+            generator.writeKey("other").writeNull();
+            generator.endObject();
+        }
+        generator.endArray();
+        generator.close();
+
+        Assert.assertEquals("[{\"id\":0,\"na\\\"meé\":\"x\",\"other\":null},{\"id\":1,\"na\\\"meé\":\"x\",\"other\":null}]",
+                            out.toString());
+    }
+
+    public void test_bytes() throws Exception {
+        SerializedKey key = new SerializedKey("é\n");
+        Assert.assertEquals("\"é\\n\":", key.toString());
+        Assert.assertTrue(Arrays.equals(",\"é\\n\":".getBytes("UTF-8"), key.getBytes()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.alibaba.jsonp.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+
+import javax.json.JsonConfiguration;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGenerator;
+
+import junit.framework.Assert;
+import junit.framework.TestCase;
+
+import com.alibaba.json.JsonGeneratorImpl;
+import com.alibaba.json.JsonUtf8Generator;
+import com.alibaba.json.SerializedKey;
+
+public class JsonUtf8GeneratorTest extends TestCase {
+
+    public void test_utf8() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = JsonProvider.provider().createGenerator(out, Charset.forName("UTF-8"));
+        Assert.assertTrue(generator instanceof JsonUtf8Generator);
+        write((JsonGeneratorImpl) generator);
+
+        StringWriter writer = new StringWriter();
+        write(new JsonGeneratorImpl(writer, new JsonConfiguration()));
+
+        Assert.assertEquals(writer.toString(), new String(out.toByteArray(), "UTF-8"));
+    }
+
+    public void test_unpaired_surrogate() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonGenerator generator = JsonProvider.provider().createGenerator(out);
+        generator.beginArray().writeString("a\uD800b").writeString("\uDC00").endArray();
+        generator.close();
+
+        Assert.assertEquals("[\"a?b\",\"?\"]", new String(out.toByteArray(), "UTF-8"));
+    }
+
+    private static void write(JsonGeneratorImpl generator) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; ++i) {
+            text.append("abé中😀\"");
+        }
+        SerializedKey key = new SerializedKey("kéy");
+
+        generator.beginArray();
+        for (int i = 0; i < 1000; ++i) {
+            generator.beginObject();
+            generator.writeKey(key).writeInt(i * 7919 - 500);
+            generator.writeKey("min").writeInt(Integer.MIN_VALUE);
+            generator.writeKey("long").writeLong(Long.MIN_VALUE + i);
+            generator.writeKey("max").writeLong(Long.MAX_VALUE);
+            generator.writeKey("ünicode").writeString("café 中文 😀");
+            generator.endObject();
+        }
+        generator.writeString(text.toString());
+        generator.endArray();
+        generator.close();
+    }
+}